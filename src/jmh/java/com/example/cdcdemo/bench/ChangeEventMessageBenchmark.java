@@ -0,0 +1,103 @@
+package com.example.cdcdemo.bench;
+
+import com.example.cdcdemo.codec.BinaryChangeEventMessageConverter;
+import com.example.cdcdemo.codec.ChangeEventBinaryCodec;
+import com.example.cdcdemo.codec.PayloadTypeRegistry;
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change-event hot paths on the RabbitMQ side: {@code DataChangeEvent} through the JSON and the
+ * binary converters that {@code RabbitMQConfig} negotiates between, and the
+ * {@code objectMapper.convertValue(data, Customer.class)} step the JSON path needs in
+ * {@code ChangeEventHandler}. The {@code consume*} benchmarks cover the whole consumer path from
+ * message body to {@code Customer}. Message sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChangeEventMessageBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonMessageConverter converter;
+    private BinaryChangeEventMessageConverter binaryConverter;
+    private DataChangeEvent event;
+    private Message message;
+    private Message binaryMessage;
+    private Object receivedData;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        converter = new Jackson2JsonMessageConverter(objectMapper);
+
+        Customer customer = new Customer(12345L, "Integration User 12345", "integration_user12345@example.com",
+                "555-2345", "12345 Integration Street", 7L);
+        event = new DataChangeEvent("customer", customer.getId(), "UPDATE", customer, LocalDateTime.now());
+        message = converter.toMessage(event, new MessageProperties());
+        binaryConverter = new BinaryChangeEventMessageConverter(
+                new ChangeEventBinaryCodec(PayloadTypeRegistry.defaults(), objectMapper));
+        binaryMessage = binaryConverter.toMessage(event, new MessageProperties());
+        System.out.printf("%nMessage body: JSON %d bytes (+ __TypeId__ header), binary %d bytes%n",
+                message.getBody().length, binaryMessage.getBody().length);
+
+        // What the listener actually receives in event.getData(): a LinkedHashMap
+        receivedData = ((DataChangeEvent) converter.fromMessage(message)).getData();
+    }
+
+    @Benchmark
+    public Message serializeEvent() {
+        return converter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeEvent() {
+        return converter.fromMessage(message);
+    }
+
+    @Benchmark
+    public Message serializeEventBinary() {
+        return binaryConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeEventBinary() {
+        return binaryConverter.fromMessage(binaryMessage);
+    }
+
+    @Benchmark
+    public Customer consumeJson() {
+        return objectMapper.convertValue(((DataChangeEvent) converter.fromMessage(message)).getData(), Customer.class);
+    }
+
+    @Benchmark
+    public Customer consumeBinary() {
+        return (Customer) ((DataChangeEvent) binaryConverter.fromMessage(binaryMessage)).getData();
+    }
+
+    @Benchmark
+    public Customer convertPayloadToCustomer() {
+        return objectMapper.convertValue(receivedData, Customer.class);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.cdcdemo.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows/sec of the old per-record integration write path against the chunked path used by
+ * {@code CustomerBatchWriter}, measured directly over JDBC against a local MySQL.
+ * <p>
+ * The per-record path here only counts its two SQL round trips per row; the application path it
+ * replaced also paid a Redis SET, a Redis DEL and a RabbitMQ publish for every row, so real gains
+ * are larger than what this reports.
+ * <p>
+ * Connection settings: {@code -Dbench.jdbc.url}, {@code -Dbench.jdbc.user}, {@code -Dbench.jdbc.password}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CustomerWriteBenchmark {
+
+    private static final int CHUNK = 1000;
+    private static final String TABLE = "customers_bench";
+
+    private Connection connection;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void connect() throws SQLException {
+        String url = System.getProperty("bench.jdbc.url",
+                "jdbc:mysql://localhost:3306/cdcdemo?useSSL=false&serverTimezone=UTC"
+                        + "&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true");
+        connection = DriverManager.getConnection(url,
+                System.getProperty("bench.jdbc.user", "root"),
+                System.getProperty("bench.jdbc.password", ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                    + "id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(255),"
+                    + " phone VARCHAR(64), address VARCHAR(255)) ENGINE=InnoDB");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE " + TABLE);
+        }
+        nextId = 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+        connection.close();
+    }
+
+    /**
+     * Half of every batch hits ids written by the previous batch, half are new.
+     */
+    private long firstIdOfBatch() {
+        long first = Math.max(1, nextId - CHUNK / 2);
+        nextId = first + CHUNK;
+        return first;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public void perRecord() throws SQLException {
+        connection.setAutoCommit(true);
+        long first = firstIdOfBatch();
+        try (PreparedStatement select = connection.prepareStatement("SELECT id FROM " + TABLE + " WHERE id = ?");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE " + TABLE + " SET name = ?, email = ?, phone = ?, address = ? WHERE id = ?");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO " + TABLE + " (name, email, phone, address, id) VALUES (?, ?, ?, ?, ?)")) {
+            for (long id = first; id < first + CHUNK; id++) {
+                select.setLong(1, id);
+                boolean exists;
+                try (ResultSet rs = select.executeQuery()) {
+                    exists = rs.next();
+                }
+                PreparedStatement write = exists ? update : insert;
+                bind(write, id);
+                write.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public int chunked() throws SQLException {
+        connection.setAutoCommit(false);
+        long first = firstIdOfBatch();
+
+        StringBuilder in = new StringBuilder("SELECT id FROM " + TABLE + " WHERE id IN (");
+        StringBuilder upsert = new StringBuilder("INSERT INTO " + TABLE + " (name, email, phone, address, id) VALUES ");
+        for (int i = 0; i < CHUNK; i++) {
+            in.append(i == 0 ? "?" : ",?");
+            upsert.append(i == 0 ? "(?,?,?,?,?)" : ",(?,?,?,?,?)");
+        }
+        in.append(')');
+        upsert.append(" ON DUPLICATE KEY UPDATE name = VALUES(name), email = VALUES(email),"
+                + " phone = VALUES(phone), address = VALUES(address)");
+
+        Set<Long> existing = new HashSet<>();
+        try (PreparedStatement select = connection.prepareStatement(in.toString())) {
+            for (int i = 0; i < CHUNK; i++) {
+                select.setLong(i + 1, first + i);
+            }
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getLong(1));
+                }
+            }
+        }
+        try (PreparedStatement write = connection.prepareStatement(upsert.toString())) {
+            for (int i = 0; i < CHUNK; i++) {
+                long id = first + i;
+                int base = i * 5;
+                write.setString(base + 1, "Bench User " + id);
+                write.setString(base + 2, "bench" + id + "@example.com");
+                write.setString(base + 3, "555-" + id);
+                write.setString(base + 4, id + " Bench Street");
+                write.setLong(base + 5, id);
+            }
+            write.executeUpdate();
+        }
+        connection.commit();
+        return existing.size();
+    }
+
+    private void bind(PreparedStatement statement, long id) throws SQLException {
+        statement.setString(1, "Bench User " + id);
+        statement.setString(2, "bench" + id + "@example.com");
+        statement.setString(3, "555-" + id);
+        statement.setString(4, id + " Bench Street");
+        statement.setLong(5, id);
+    }
+}
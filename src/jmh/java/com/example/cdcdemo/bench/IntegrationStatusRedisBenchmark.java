@@ -0,0 +1,82 @@
+package com.example.cdcdemo.bench;
+
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.model.integration.IntegrationStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IntegrationStatus} through the two Redis value serializers set up in {@code RedisConfig}:
+ * the typed {@link Jackson2JsonRedisSerializer} of {@code integrationStatusRedisTemplate} and the
+ * {@link GenericJackson2JsonRedisSerializer} of the generic {@code redisTemplate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntegrationStatusRedisBenchmark {
+
+    private Jackson2JsonRedisSerializer<IntegrationStatus> typedSerializer;
+    private GenericJackson2JsonRedisSerializer genericSerializer;
+    private IntegrationStatus status;
+    private byte[] typedBytes;
+    private byte[] genericBytes;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        typedSerializer = new Jackson2JsonRedisSerializer<>(IntegrationStatus.class);
+        typedSerializer.setObjectMapper(objectMapper);
+        genericSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+
+        status = IntegrationStatus.builder()
+                .integrationId(UUID.randomUUID().toString())
+                .sourceName("nightly-crm-export")
+                .targetEntity("customer")
+                .status("PROCESSING")
+                .startTime(LocalDateTime.now())
+                .recordsProcessed(125000L)
+                .recordsSuccess(124990L)
+                .recordsFailed(10L)
+                .build();
+        typedBytes = typedSerializer.serialize(status);
+        genericBytes = genericSerializer.serialize(status);
+    }
+
+    @Benchmark
+    public byte[] typedSerialize() {
+        return typedSerializer.serialize(status);
+    }
+
+    @Benchmark
+    public IntegrationStatus typedDeserialize() {
+        return typedSerializer.deserialize(typedBytes);
+    }
+
+    @Benchmark
+    public byte[] genericSerialize() {
+        return genericSerializer.serialize(status);
+    }
+
+    @Benchmark
+    public Object genericDeserialize() {
+        return genericSerializer.deserialize(genericBytes);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.cdcdemo.bench;
+
+import com.example.cdcdemo.service.integration.CustomerFieldMapping;
+import com.example.cdcdemo.service.integration.source.MappedCsvCustomerReader;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingest throughput of {@link MappedCsvCustomerReader} by parallelism.
+ * <p>
+ * Besides ops/s (whole-file parses per second) the {@code bytes} and {@code bytesPerCore}
+ * secondary results are bytes per second; divide by 1,048,576 for MB/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MappedCsvParseBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Path file;
+    private long fileSize;
+    private ForkJoinPool pool;
+    private CustomerFieldMapping fieldMapping;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long bytes;
+        public long bytesPerCore;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            bytesPerCore = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("cdc-bench-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("id,name,email,phone,address\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(i + ",\"User " + i + "\",user" + i + "@example.com,555-" + (i % 10000)
+                        + ",\"" + i + " Integration Street, Springfield\"\n");
+            }
+        }
+        fileSize = Files.size(file);
+        pool = new ForkJoinPool(parallelism);
+
+        Map<String, String> mappings = new HashMap<>();
+        mappings.put("id", "id");
+        mappings.put("name", "name");
+        mappings.put("email", "email");
+        mappings.put("phone", "phone");
+        mappings.put("address", "address");
+        fieldMapping = CustomerFieldMapping.compile(mappings);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long parse(Throughput throughput) throws IOException {
+        LongAdder customers = new LongAdder();
+        new MappedCsvCustomerReader(file, ',', fieldMapping)
+                .read(pool, 1000, chunk -> customers.add(chunk.size()));
+        throughput.bytes += fileSize;
+        throughput.bytesPerCore += fileSize / parallelism;
+        return customers.sum();
+    }
+}
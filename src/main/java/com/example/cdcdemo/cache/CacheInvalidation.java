@@ -0,0 +1,19 @@
+package com.example.cdcdemo.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 一级缓存失效广播消息；keys 为空表示清空整个缓存
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+    private String origin;
+    private String cacheName;
+    private List<String> keys;
+}
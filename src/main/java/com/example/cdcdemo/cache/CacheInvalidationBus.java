@@ -0,0 +1,121 @@
+package com.example.cdcdemo.cache;
+
+import com.example.cdcdemo.config.NearCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans out near-cache invalidations to every node over a Redis pub/sub channel.
+ * <p>
+ * Each node registers its in-process caches here. An invalidation drops the keys locally right away
+ * and publishes them; other nodes drop them when the message arrives. Messages a node sent itself are
+ * ignored on receipt. Pub/sub is best effort, so the local caches also expire entries after a while.
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final byte[] channel;
+    private final String origin = UUID.randomUUID().toString();
+    private final Map<String, Cache<Object, Object>> localCaches = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper,
+                                NearCacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = properties.getInvalidationChannel().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public String getChannel() {
+        return new String(channel, StandardCharsets.UTF_8);
+    }
+
+    void register(String cacheName, Cache<Object, Object> localCache) {
+        localCaches.put(cacheName, localCache);
+    }
+
+    /**
+     * Drop keys from the local cache and tell the other nodes to do the same.
+     * An empty key list clears the whole cache.
+     */
+    public void invalidate(String cacheName, Collection<?> keys) {
+        invalidateLocal(cacheName, toStrings(keys));
+        try {
+            byte[] message = encode(cacheName, keys);
+            redisTemplate.execute((RedisCallback<Object>) connection -> connection.publish(channel, message));
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast invalidation for cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * Same as {@link #invalidate} but publishes on a connection the caller is already pipelining.
+     */
+    public void invalidate(RedisConnection connection, String cacheName, Collection<?> keys) {
+        invalidateLocal(cacheName, toStrings(keys));
+        connection.publish(channel, encode(cacheName, keys));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidation.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation: {}", e.getMessage());
+            return;
+        }
+        if (origin.equals(invalidation.getOrigin())) {
+            return;
+        }
+        invalidateLocal(invalidation.getCacheName(), invalidation.getKeys());
+    }
+
+    private void invalidateLocal(String cacheName, List<String> keys) {
+        Cache<Object, Object> localCache = localCaches.get(cacheName);
+        if (localCache == null) {
+            return;
+        }
+        if (keys == null || keys.isEmpty()) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidateAll(keys);
+        }
+    }
+
+    private byte[] encode(String cacheName, Collection<?> keys) {
+        try {
+            return objectMapper.writeValueAsBytes(new CacheInvalidation(origin, cacheName, toStrings(keys)));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode cache invalidation: " + e.getMessage(), e);
+        }
+    }
+
+    static List<String> toStrings(Collection<?> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> strings = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            strings.add(String.valueOf(key));
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.cdcdemo.cache;
+
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The customer cache: one Spring cache named {@value #NAME} holding a {@code Customer} per id, stored
+ * by the cache manager's Redis cache with its key scheme ({@code customers::<id>}) and serializer.
+ * Listings are paged from the database and not cached.
+ * <p>
+ * Reads go through {@code @Cacheable}. Writers don't put values; they evict the touched ids with one
+ * UNLINK (or DEL) plus a near-cache broadcast, and let the next read load the committed row. Evictions
+ * made in a transaction join its other Redis writes in the pipeline sent after commit.
+ */
+@Component
+public class CustomerCache {
+
+    public static final String NAME = "customers";
+
+    private final RedisCacheConfiguration cacheConfiguration;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisUnitOfWork unitOfWork;
+
+    public CustomerCache(RedisCacheConfiguration cacheConfiguration, CacheInvalidationBus invalidationBus,
+                         RedisUnitOfWork unitOfWork) {
+        this.cacheConfiguration = cacheConfiguration;
+        this.invalidationBus = invalidationBus;
+        this.unitOfWork = unitOfWork;
+    }
+
+    /**
+     * Evict the given ids after the current transaction commits, or right away when there is no transaction.
+     */
+    public void evictAfterCommit(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> snapshot = new ArrayList<>(ids);
+        unitOfWork.afterCommit(connection -> evict(connection, snapshot));
+    }
+
+    /**
+     * Evict the given ids in one pipelined round trip.
+     */
+    public void evict(Collection<Long> ids) {
+        unitOfWork.execute(connection -> evict(connection, ids));
+    }
+
+    /**
+     * Queue the eviction on a connection the caller is already pipelining.
+     */
+    public void evict(RedisConnection connection, Collection<Long> ids) {
+        byte[][] rawKeys = new byte[ids.size()][];
+        int i = 0;
+        for (Long id : ids) {
+            rawKeys[i++] = redisKey(id).getBytes(StandardCharsets.UTF_8);
+        }
+        unitOfWork.delete(connection, rawKeys);
+        invalidationBus.invalidate(connection, NAME, ids);
+    }
+
+    String redisKey(Object key) {
+        String cacheKey = String.valueOf(key);
+        return cacheConfiguration.usePrefix() ? cacheConfiguration.getKeyPrefixFor(NAME) + cacheKey : cacheKey;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.cdcdemo.cache;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.function.UnaryOperator;
+
+/**
+ * Spreads the TTL of every entry the Redis cache writes, so entries cached in the same burst
+ * (a warm-up, a bulk read after a deploy) don't all expire in the same second.
+ */
+public class JitteredRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+    private final UnaryOperator<Duration> jitter;
+
+    public JitteredRedisCacheWriter(RedisCacheWriter delegate, UnaryOperator<Duration> jitter) {
+        this.delegate = delegate;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        delegate.put(name, key, value, jitter(ttl));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return delegate.get(name, key);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.putIfAbsent(name, key, value, jitter(ttl));
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new JitteredRedisCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), jitter);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+
+    // A null or zero TTL means the entry doesn't expire
+    private Duration jitter(Duration ttl) {
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? ttl : jitter.apply(ttl);
+    }
+}
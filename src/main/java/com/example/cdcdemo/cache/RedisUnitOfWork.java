@@ -0,0 +1,155 @@
+package com.example.cdcdemo.cache;
+
+import com.example.cdcdemo.config.RedisWriteProperties;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Collects the Redis writes of a unit of work and sends them in one pipeline.
+ * <p>
+ * Inside a transaction, writes are queued on it and sent together after commit (dropped on rollback),
+ * so a mutation that evicts, caches and publishes costs one round trip. Without a transaction a write
+ * is sent right away, still as a single pipeline. TTLs set through here get a random jitter so keys
+ * written together don't expire together, and deletes use UNLINK unless it is turned off.
+ */
+@Component
+public class RedisUnitOfWork {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisWriteProperties properties;
+
+    public RedisUnitOfWork(RedisTemplate<String, Object> redisTemplate, RedisWriteProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Commands queued on a connection that is being pipelined; their results are ignored.
+     */
+    @FunctionalInterface
+    public interface RedisWrite {
+        void writeTo(RedisConnection connection);
+    }
+
+    /**
+     * Send the write after the current transaction commits, with the others of the transaction,
+     * or right away when there is no transaction.
+     */
+    public void afterCommit(RedisWrite write) {
+        List<RedisWrite> queued = queued();
+        if (queued == null) {
+            execute(write);
+            return;
+        }
+        queued.add(write);
+    }
+
+    /**
+     * Send one write now, in its own pipeline.
+     */
+    public void execute(RedisWrite write) {
+        execute(Collections.singletonList(write));
+    }
+
+    /**
+     * Send the writes now, in one pipeline.
+     */
+    public void execute(List<RedisWrite> writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (RedisWrite write : writes) {
+                write.writeTo(connection);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * SET with the TTL jittered.
+     */
+    public void set(RedisConnection connection, byte[] key, byte[] value, Duration ttl) {
+        connection.stringCommands().set(key, value, Expiration.from(jitter(ttl)), RedisStringCommands.SetOption.upsert());
+    }
+
+    /**
+     * EXPIRE with the TTL jittered.
+     */
+    public void expire(RedisConnection connection, byte[] key, Duration ttl) {
+        connection.keyCommands().pExpire(key, jitter(ttl).toMillis());
+    }
+
+    /**
+     * UNLINK, or DEL when unlink is disabled.
+     */
+    public void delete(RedisConnection connection, byte[]... keys) {
+        if (properties.isUnlink()) {
+            connection.keyCommands().unlink(keys);
+        } else {
+            connection.keyCommands().del(keys);
+        }
+    }
+
+    /**
+     * The TTL spread uniformly by the configured ratio, never below one millisecond.
+     */
+    public Duration jitter(Duration ttl) {
+        double ratio = properties.getTtlJitter();
+        if (ratio <= 0 || ttl.isZero() || ttl.isNegative()) {
+            return ttl;
+        }
+        long millis = ttl.toMillis();
+        long spread = (long) (millis * Math.min(ratio, 1.0));
+        long jittered = millis + ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+        return Duration.ofMillis(Math.max(1, jittered));
+    }
+
+    /**
+     * The queue of the current transaction, bound on first use; {@code null} outside a transaction
+     * or once the queue has been sent.
+     */
+    private List<RedisWrite> queued() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Queue queue = (Queue) TransactionSynchronizationManager.getResource(this);
+        if (queue != null) {
+            return queue.sent ? null : queue.writes;
+        }
+
+        Queue created = new Queue();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Writes queued from here on (by later afterCommit callbacks) go out on their own
+                created.sent = true;
+                execute(created.writes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(RedisUnitOfWork.this);
+            }
+        });
+        return created.writes;
+    }
+
+    private static final class Queue {
+        private final List<RedisWrite> writes = new ArrayList<>();
+        private boolean sent;
+    }
+}
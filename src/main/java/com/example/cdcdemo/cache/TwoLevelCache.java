@@ -0,0 +1,145 @@
+package com.example.cdcdemo.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+
+/**
+ * A Spring {@link Cache} that reads through a bounded in-process cache (L1) in front of a shared
+ * cache (L2, Redis).
+ * <p>
+ * Reads try L1 first and fill it from L2 on a miss. Writes and evictions go to L2 and are broadcast
+ * through the {@link CacheInvalidationBus}, so every node drops its stale L1 copy. L1 keys are the
+ * string form of the cache key, the same form Redis cache keys use.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Counter remoteEvictions;
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, Cache remote,
+                         CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.remoteHits = meterRegistry.counter("cache.gets", "cache", name, "level", "l2", "result", "hit");
+        this.remoteMisses = meterRegistry.counter("cache.gets", "cache", name, "level", "l2", "result", "miss");
+        this.remoteEvictions = meterRegistry.counter("cache.evictions", "cache", name, "level", "l2");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper cached = (ValueWrapper) local.getIfPresent(localKey);
+        if (cached != null) {
+            return cached;
+        }
+        ValueWrapper loaded = remote.get(key);
+        if (loaded != null) {
+            remoteHits.increment();
+            local.put(localKey, loaded);
+        } else {
+            remoteMisses.increment();
+        }
+        return loaded;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Single-flight read: concurrent misses on one key in this process wait for a single L2 lookup
+     * and, if that misses too, a single call to the loader.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = (ValueWrapper) local.get(localKey(key), k -> load(key, valueLoader));
+        return wrapper != null ? (T) wrapper.get() : null;
+    }
+
+    private ValueWrapper load(Object key, Callable<?> valueLoader) {
+        ValueWrapper cached = remote.get(key);
+        if (cached != null) {
+            remoteHits.increment();
+            return cached;
+        }
+        remoteMisses.increment();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value == null) {
+            return null;
+        }
+        remote.put(key, value);
+        return new SimpleValueWrapper(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidationBus.invalidate(name, Collections.singletonList(key));
+        if (value != null) {
+            local.put(localKey(key), new SimpleValueWrapper(value));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        remoteEvictions.increment();
+        invalidationBus.invalidate(name, Collections.singletonList(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        if (evicted) {
+            remoteEvictions.increment();
+        }
+        invalidationBus.invalidate(name, Collections.singletonList(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidationBus.invalidate(name, Collections.emptyList());
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
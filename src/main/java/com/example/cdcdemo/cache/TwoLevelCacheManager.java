@@ -0,0 +1,58 @@
+package com.example.cdcdemo.cache;
+
+import com.example.cdcdemo.config.NearCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every cache of a shared cache manager in a {@link TwoLevelCache} with its own in-process L1.
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remote;
+    private final NearCacheProperties properties;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remote, NearCacheProperties properties,
+                                CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        this.remote = remote;
+        this.properties = properties;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    private Cache createCache(String name) {
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, Tags.of("level", "l1"));
+        invalidationBus.register(name, local);
+        return new TwoLevelCache(name, local, remoteCache, invalidationBus, meterRegistry);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.cdcdemo.capture;
+
+import com.example.cdcdemo.config.CaptureProperties;
+import com.example.cdcdemo.mapper.BinlogCheckpointMapper;
+import com.example.cdcdemo.model.BinlogCheckpoint;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.example.cdcdemo.publisher.ChangeEventRouter;
+import com.example.cdcdemo.publisher.ConfirmingBatchPublisher;
+import com.github.shyiko.mysql.binlog.BinaryLogClient;
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.QueryEventData;
+import com.github.shyiko.mysql.binlog.event.RotateEventData;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.deserialization.EventDeserializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tails the MySQL binlog and publishes row changes on the captured tables as change events.
+ * <p>
+ * Row events are collected per transaction and handed to the {@link ConfirmingBatchPublisher} when
+ * the transaction's XID event arrives. The binlog position (and GTID set, when GTID mode is on) after
+ * each transaction is checkpointed to {@code cdc_binlog_checkpoint} once the broker has confirmed that
+ * transaction and every one before it, at most once per checkpoint interval. On restart capture resumes
+ * from the last checkpoint, so events after it may be delivered twice but none are skipped. If a batch
+ * cannot be published the client disconnects and reconnects from the last checkpoint.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cdc.publisher", name = "mode", havingValue = "binlog")
+@Slf4j
+public class BinlogCaptureEngine implements SmartLifecycle {
+
+    private final CaptureProperties properties;
+    private final BinlogCheckpointMapper checkpointMapper;
+    private final ConfirmingBatchPublisher batchPublisher;
+    private final ChangeEventRouter router;
+    private final Counter rowsCaptured;
+    private final Counter transactionsCaptured;
+
+    private volatile boolean running;
+    private volatile BinaryLogClient client;
+    private Thread captureThread;
+
+    // Touched only from the client's event thread
+    private BinlogEventConverter converter;
+    private String binlogFile;
+    private List<DataChangeEvent> transaction = new ArrayList<>();
+    private final Deque<PendingCheckpoint> pending = new ArrayDeque<>();
+    private long lastCheckpointAt;
+
+    public BinlogCaptureEngine(CaptureProperties properties, BinlogCheckpointMapper checkpointMapper,
+                               ConfirmingBatchPublisher batchPublisher, ChangeEventRouter router,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.checkpointMapper = checkpointMapper;
+        this.batchPublisher = batchPublisher;
+        this.router = router;
+        this.rowsCaptured = meterRegistry.counter("cdc.capture.rows");
+        this.transactionsCaptured = meterRegistry.counter("cdc.capture.transactions");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        captureThread = new Thread(this::captureLoop, "cdc-binlog-capture");
+        captureThread.setDaemon(true);
+        captureThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        disconnect();
+        if (captureThread != null) {
+            captureThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void captureLoop() {
+        while (running) {
+            try {
+                BinaryLogClient connected = connectFromCheckpoint();
+                client = connected;
+                // Blocks until the connection drops or disconnect() is called
+                connected.connect();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Binlog capture connection failed: {}", e.getMessage());
+            }
+            if (!running) {
+                return;
+            }
+            try {
+                Thread.sleep(properties.getReconnectDelay().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private BinaryLogClient connectFromCheckpoint() {
+        BinaryLogClient newClient = new BinaryLogClient(properties.getHost(), properties.getPort(),
+                properties.getUsername(), properties.getPassword());
+        newClient.setServerId(properties.getServerId());
+        EventDeserializer deserializer = new EventDeserializer();
+        deserializer.setCompatibilityMode(EventDeserializer.CompatibilityMode.CHAR_AND_BINARY_AS_BYTE_ARRAY);
+        newClient.setEventDeserializer(deserializer);
+
+        BinlogCheckpoint checkpoint = checkpointMapper.selectById(properties.getCheckpointName());
+        if (checkpoint != null && checkpoint.getGtidSet() != null && !checkpoint.getGtidSet().isEmpty()) {
+            newClient.setGtidSet(checkpoint.getGtidSet());
+            log.info("Resuming binlog capture from GTID set {}", checkpoint.getGtidSet());
+        } else if (checkpoint != null && checkpoint.getBinlogFile() != null) {
+            newClient.setBinlogFilename(checkpoint.getBinlogFile());
+            newClient.setBinlogPosition(checkpoint.getBinlogPosition());
+            log.info("Resuming binlog capture from {}:{}", checkpoint.getBinlogFile(), checkpoint.getBinlogPosition());
+        } else {
+            log.info("No binlog checkpoint found, capturing from the current position");
+        }
+
+        converter = new BinlogEventConverter(properties.getDatabase(), properties.getTables(),
+                checkpointMapper::selectColumnNames);
+        binlogFile = newClient.getBinlogFilename();
+        transaction = new ArrayList<>();
+        pending.clear();
+        newClient.registerEventListener(this::onEvent);
+        return newClient;
+    }
+
+    private void onEvent(Event event) {
+        EventHeaderV4 header = event.getHeader();
+        EventType type = header.getEventType();
+        if (type == EventType.ROTATE) {
+            binlogFile = ((RotateEventData) event.getData()).getBinlogFilename();
+        } else if (type == EventType.TABLE_MAP) {
+            converter.onTableMap(event.getData());
+        } else if (EventType.isRowMutation(type)) {
+            List<DataChangeEvent> rows = converter.convert(event.getData(), header.getTimestamp());
+            transaction.addAll(rows);
+            rowsCaptured.increment(rows.size());
+        } else if (type == EventType.XID) {
+            commit(header.getNextPosition());
+        } else if (type == EventType.QUERY) {
+            String sql = ((QueryEventData) event.getData()).getSql().trim().toUpperCase(Locale.ROOT);
+            if (sql.startsWith("ALTER") || sql.startsWith("DROP") || sql.startsWith("RENAME") || sql.startsWith("CREATE")) {
+                converter.invalidateColumns();
+            }
+        }
+    }
+
+    private void commit(long nextPosition) {
+        CompletableFuture<Void> confirmed;
+        if (transaction.isEmpty()) {
+            confirmed = CompletableFuture.completedFuture(null);
+        } else {
+            confirmed = batchPublisher.publish(router::routingKey, transaction);
+            transactionsCaptured.increment();
+            transaction = new ArrayList<>();
+        }
+        BinaryLogClient current = client;
+        pending.addLast(new PendingCheckpoint(binlogFile, nextPosition,
+                current != null ? current.getGtidSet() : null, confirmed));
+        checkpointConfirmed();
+    }
+
+    /**
+     * Persist the newest position whose transaction and all earlier ones are confirmed.
+     */
+    private void checkpointConfirmed() {
+        PendingCheckpoint confirmed = null;
+        while (!pending.isEmpty() && pending.peekFirst().confirmed.isDone()) {
+            PendingCheckpoint head = pending.pollFirst();
+            if (head.confirmed.isCompletedExceptionally()) {
+                log.error("Change events up to {}:{} could not be published, reconnecting from the last checkpoint",
+                        head.binlogFile, head.position);
+                pending.clear();
+                disconnect();
+                return;
+            }
+            confirmed = head;
+        }
+        long now = System.currentTimeMillis();
+        if (confirmed == null || now - lastCheckpointAt < properties.getCheckpointInterval().toMillis()) {
+            if (confirmed != null) {
+                // Not due yet; keep it at the head so the next pass can save it
+                pending.addFirst(confirmed);
+            }
+            return;
+        }
+        try {
+            checkpointMapper.upsert(BinlogCheckpoint.builder()
+                    .name(properties.getCheckpointName())
+                    .binlogFile(confirmed.binlogFile)
+                    .binlogPosition(confirmed.position)
+                    .gtidSet(confirmed.gtidSet)
+                    .build());
+            lastCheckpointAt = now;
+        } catch (RuntimeException e) {
+            pending.addFirst(confirmed);
+            log.warn("Failed to save binlog checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private void disconnect() {
+        BinaryLogClient current = client;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.disconnect();
+        } catch (IOException e) {
+            log.warn("Error disconnecting binlog client: {}", e.getMessage());
+        }
+    }
+
+    private static final class PendingCheckpoint {
+        private final String binlogFile;
+        private final long position;
+        private final String gtidSet;
+        private final CompletableFuture<Void> confirmed;
+
+        private PendingCheckpoint(String binlogFile, long position, String gtidSet, CompletableFuture<Void> confirmed) {
+            this.binlogFile = binlogFile;
+            this.position = position;
+            this.gtidSet = gtidSet;
+            this.confirmed = confirmed;
+        }
+    }
+}
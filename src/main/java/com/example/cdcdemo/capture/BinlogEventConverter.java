@@ -0,0 +1,177 @@
+package com.example.cdcdemo.capture;
+
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.example.cdcdemo.publisher.ChangedFields;
+import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.EventData;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Turns row-based binlog events into {@link DataChangeEvent}s.
+ * <p>
+ * Row events only reference a table id, so the converter remembers the preceding TABLE_MAP event for
+ * each id. Column names come from the table map when the server writes full row metadata
+ * ({@code binlog_row_metadata=FULL}); otherwise they are looked up once per table through the
+ * column resolver and cached until {@link #invalidateColumns()} is called after DDL.
+ * Row data is emitted as a map keyed by camel-case column name, the same shape a serialized entity has.
+ */
+public class BinlogEventConverter {
+
+    private final String database;
+    private final Map<String, String> entityTypes;
+    private final BiFunction<String, String, List<String>> columnResolver;
+
+    private final Map<Long, TableMapEventData> tablesById = new HashMap<>();
+    private final Map<String, List<String>> columnsByTable = new HashMap<>();
+
+    /**
+     * @param database       only tables in this schema are captured
+     * @param entityTypes    captured table name to entity type
+     * @param columnResolver (database, table) to column names in ordinal order
+     */
+    public BinlogEventConverter(String database, Map<String, String> entityTypes,
+                                BiFunction<String, String, List<String>> columnResolver) {
+        this.database = database;
+        this.entityTypes = entityTypes;
+        this.columnResolver = columnResolver;
+    }
+
+    public void onTableMap(TableMapEventData tableMap) {
+        tablesById.put(tableMap.getTableId(), tableMap);
+    }
+
+    /**
+     * Forget cached column lists, e.g. after an ALTER TABLE.
+     */
+    public void invalidateColumns() {
+        columnsByTable.clear();
+    }
+
+    /**
+     * Convert one row event. Returns an empty list for events on tables that are not captured.
+     *
+     * @param timestamp event time in epoch millis, from the binlog event header
+     */
+    public List<DataChangeEvent> convert(EventData data, long timestamp) {
+        if (data instanceof WriteRowsEventData) {
+            WriteRowsEventData rows = (WriteRowsEventData) data;
+            return toEvents(rows.getTableId(), rows.getIncludedColumns(), rows.getRows(), null, null, "CREATE", timestamp);
+        }
+        if (data instanceof DeleteRowsEventData) {
+            DeleteRowsEventData rows = (DeleteRowsEventData) data;
+            return toEvents(rows.getTableId(), rows.getIncludedColumns(), rows.getRows(), null, null, "DELETE", timestamp);
+        }
+        if (data instanceof UpdateRowsEventData) {
+            UpdateRowsEventData rows = (UpdateRowsEventData) data;
+            List<Serializable[]> before = new ArrayList<>(rows.getRows().size());
+            List<Serializable[]> after = new ArrayList<>(rows.getRows().size());
+            for (Map.Entry<Serializable[], Serializable[]> row : rows.getRows()) {
+                before.add(row.getKey());
+                after.add(row.getValue());
+            }
+            return toEvents(rows.getTableId(), rows.getIncludedColumns(), after,
+                    rows.getIncludedColumnsBeforeUpdate(), before, "UPDATE", timestamp);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * @param beforeRows the before images of an update, in the same order as {@code rows}; {@code null} otherwise.
+     *                   With {@code binlog_row_image=MINIMAL} they hold only the key, and every column counts as changed.
+     */
+    private List<DataChangeEvent> toEvents(long tableId, BitSet includedColumns, List<Serializable[]> rows,
+                                           BitSet beforeColumns, List<Serializable[]> beforeRows,
+                                           String operation, long timestamp) {
+        TableMapEventData table = tablesById.get(tableId);
+        if (table == null || !database.equals(table.getDatabase())) {
+            return Collections.emptyList();
+        }
+        String entityType = entityTypes.get(table.getTable());
+        if (entityType == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> columns = columnNames(table);
+        LocalDateTime eventTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC);
+        List<DataChangeEvent> events = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> values = toValues(columns, includedColumns, rows.get(i));
+            DataChangeEvent event = new DataChangeEvent(entityType, toLong(values.get("id")), operation, values, eventTime);
+            event.setVersion(toLong(values.get("version")));
+            if (beforeRows != null) {
+                Map<String, Object> before = toValues(columns, beforeColumns, beforeRows.get(i));
+                event.setBefore(before);
+                event.setChangedFields(ChangedFields.of(before, values));
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static Map<String, Object> toValues(List<String> columns, BitSet includedColumns, Serializable[] row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        // Row arrays only hold the included columns, in column order
+        int index = 0;
+        for (int column = includedColumns.nextSetBit(0); column >= 0 && index < row.length;
+             column = includedColumns.nextSetBit(column + 1)) {
+            String name = column < columns.size() ? columns.get(column) : "col" + column;
+            values.put(toCamelCase(name), normalize(row[index++]));
+        }
+        return values;
+    }
+
+    private List<String> columnNames(TableMapEventData table) {
+        if (table.getEventMetadata() != null && table.getEventMetadata().getColumnNames() != null) {
+            return table.getEventMetadata().getColumnNames();
+        }
+        return columnsByTable.computeIfAbsent(table.getTable(),
+                t -> columnResolver.apply(table.getDatabase(), t));
+    }
+
+    private static Object normalize(Serializable value) {
+        if (value instanceof byte[]) {
+            // CHAR/VARCHAR/TEXT columns arrive as raw bytes; the schema is utf8mb4
+            return new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        if (value instanceof java.util.Date) {
+            // DATETIME/TIMESTAMP are decoded as UTC, matching serverTimezone=UTC on the datasource
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(((java.util.Date) value).getTime()), ZoneOffset.UTC);
+        }
+        return value;
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    static String toCamelCase(String column) {
+        StringBuilder name = new StringBuilder(column.length());
+        boolean upper = false;
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (c == '_') {
+                upper = name.length() > 0;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+}
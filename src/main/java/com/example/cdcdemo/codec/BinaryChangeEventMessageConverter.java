@@ -0,0 +1,43 @@
+package com.example.cdcdemo.codec;
+
+import com.example.cdcdemo.model.DataChangeEvent;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+/**
+ * AMQP converter for {@link DataChangeEvent}s in the {@link ChangeEventBinaryCodec} format, marked
+ * with content type {@value #CONTENT_TYPE}.
+ */
+public class BinaryChangeEventMessageConverter extends AbstractMessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-cdc-event";
+
+    private final ChangeEventBinaryCodec codec;
+
+    public BinaryChangeEventMessageConverter(ChangeEventBinaryCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties) {
+        if (!(object instanceof DataChangeEvent)) {
+            throw new MessageConversionException("Binary encoding only supports DataChangeEvent, not "
+                    + (object == null ? "null" : object.getClass().getName()));
+        }
+        byte[] body = codec.encode((DataChangeEvent) object);
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        try {
+            return codec.decode(message.getBody());
+        } catch (RuntimeException e) {
+            throw new MessageConversionException("Failed to decode binary change event", e);
+        }
+    }
+}
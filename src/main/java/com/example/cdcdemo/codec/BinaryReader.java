@@ -0,0 +1,89 @@
+package com.example.cdcdemo.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads what {@link BinaryWriter} writes. A reader can be limited to a block, so a schema that
+ * reads fewer fields than were written leaves the rest of the block unread without harm.
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+    private final int limit;
+
+    public BinaryReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    private BinaryReader(byte[] buffer, int position, int limit) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    public long readSignedVarLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public byte[] readBytes(int length) {
+        require(length);
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    /**
+     * Read a length-prefixed block: returns a reader over the block and moves this reader past it.
+     */
+    public BinaryReader readBlock() {
+        int length = readLength();
+        BinaryReader block = new BinaryReader(buffer, position, position + length);
+        position += length;
+        return block;
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    private int readLength() {
+        long length = readVarLong();
+        if (length > remaining()) {
+            throw new IllegalArgumentException("Length " + length + " exceeds the " + remaining() + " bytes left");
+        }
+        return (int) length;
+    }
+
+    private void require(int bytes) {
+        if (bytes > remaining()) {
+            throw new IllegalArgumentException("Unexpected end of binary change event");
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.cdcdemo.codec;
+
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact binary encoding of {@link DataChangeEvent}.
+ * <pre>
+ * version       byte (1)
+ * flags         byte: 1 = entityId, 2 = timestamp, 4 = data, 8 = row version, 16 = before, 32 = changed fields
+ * entityType    string
+ * operation     byte: 1 CREATE, 2 UPDATE, 3 DELETE, 0 = string follows
+ * entityId      signed varint                          (if flagged)
+ * timestamp     signed varint epoch second (UTC), varint nanos  (if flagged)
+ * data          varint payload type id, then a length-prefixed block (if flagged)
+ * row version   signed varint                          (if flagged)
+ * before        like data                              (if flagged)
+ * changed       varint payload type id of data, then   (if flagged)
+ *                 a varint bitmask over that schema's field names, or
+ *                 for type id 0: varint count and the names as strings
+ * </pre>
+ * Fields are only ever added at the end, so an older reader simply ignores what follows the fields
+ * it knows.
+ * Strings are a varint byte length followed by UTF-8. Payload type ids come from the
+ * {@link PayloadTypeRegistry}; a registered payload is written by its schema and read back as that
+ * type, anything else (such as the column maps of binlog capture) is embedded as JSON and read back
+ * as a map, as with the JSON format.
+ */
+public class ChangeEventBinaryCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int HAS_ENTITY_ID = 1;
+    private static final int HAS_TIMESTAMP = 1 << 1;
+    private static final int HAS_DATA = 1 << 2;
+    private static final int HAS_VERSION = 1 << 3;
+    private static final int HAS_BEFORE = 1 << 4;
+    private static final int HAS_CHANGED_FIELDS = 1 << 5;
+
+    private static final String[] OPERATIONS = {null, "CREATE", "UPDATE", "DELETE"};
+
+    private final PayloadTypeRegistry registry;
+    private final ObjectMapper objectMapper;
+
+    public ChangeEventBinaryCodec(PayloadTypeRegistry registry, ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] encode(DataChangeEvent event) {
+        BinaryWriter out = new BinaryWriter(128);
+        int flags = (event.getEntityId() != null ? HAS_ENTITY_ID : 0)
+                | (event.getTimestamp() != null ? HAS_TIMESTAMP : 0)
+                | (event.getData() != null ? HAS_DATA : 0)
+                | (event.getVersion() != null ? HAS_VERSION : 0)
+                | (event.getBefore() != null ? HAS_BEFORE : 0)
+                | (event.getChangedFields() != null ? HAS_CHANGED_FIELDS : 0);
+        out.writeByte(VERSION);
+        out.writeByte(flags);
+        out.writeString(event.getEntityType());
+        int operation = operationCode(event.getOperation());
+        out.writeByte(operation);
+        if (operation == 0) {
+            out.writeString(event.getOperation());
+        }
+        if (event.getEntityId() != null) {
+            out.writeSignedVarLong(event.getEntityId());
+        }
+        if (event.getTimestamp() != null) {
+            out.writeSignedVarLong(event.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeVarLong(event.getTimestamp().getNano());
+        }
+        if (event.getData() != null) {
+            writeData(event.getData(), out);
+        }
+        if (event.getVersion() != null) {
+            out.writeSignedVarLong(event.getVersion());
+        }
+        if (event.getBefore() != null) {
+            writeData(event.getBefore(), out);
+        }
+        if (event.getChangedFields() != null) {
+            writeChangedFields(event.getChangedFields(), event.getData(), out);
+        }
+        return out.toByteArray();
+    }
+
+    public DataChangeEvent decode(byte[] bytes) {
+        BinaryReader in = new BinaryReader(bytes);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported binary change event version " + version);
+        }
+        int flags = in.readByte();
+        DataChangeEvent event = new DataChangeEvent();
+        event.setEntityType(in.readString());
+        int operation = in.readByte();
+        if (operation >= OPERATIONS.length) {
+            throw new IllegalArgumentException("Unknown operation code " + operation);
+        }
+        event.setOperation(operation == 0 ? in.readString() : OPERATIONS[operation]);
+        if ((flags & HAS_ENTITY_ID) != 0) {
+            event.setEntityId(in.readSignedVarLong());
+        }
+        if ((flags & HAS_TIMESTAMP) != 0) {
+            long seconds = in.readSignedVarLong();
+            event.setTimestamp(LocalDateTime.ofEpochSecond(seconds, (int) in.readVarLong(), ZoneOffset.UTC));
+        }
+        if ((flags & HAS_DATA) != 0) {
+            event.setData(readData(in));
+        }
+        if ((flags & HAS_VERSION) != 0) {
+            event.setVersion(in.readSignedVarLong());
+        }
+        if ((flags & HAS_BEFORE) != 0) {
+            event.setBefore(readData(in));
+        }
+        if ((flags & HAS_CHANGED_FIELDS) != 0) {
+            event.setChangedFields(readChangedFields(in));
+        }
+        return event;
+    }
+
+    private void writeData(Object data, BinaryWriter out) {
+        int typeId = registry.idOf(data.getClass());
+        out.writeVarLong(typeId);
+        BinaryWriter block = new BinaryWriter(96);
+        if (typeId == PayloadTypeRegistry.JSON_PAYLOAD) {
+            try {
+                block.writeBytes(objectMapper.writeValueAsBytes(data));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            registry.<Object>schema(typeId).write(data, block);
+        }
+        out.writeBlock(block);
+    }
+
+    private Object readData(BinaryReader in) {
+        int typeId = (int) in.readVarLong();
+        BinaryReader block = in.readBlock();
+        if (typeId == PayloadTypeRegistry.JSON_PAYLOAD) {
+            try {
+                return objectMapper.readValue(block.readBytes(block.remaining()), Object.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        PayloadSchema<?> schema = registry.schema(typeId);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown payload type id " + typeId);
+        }
+        return schema.read(block);
+    }
+
+    private void writeChangedFields(List<String> changedFields, Object data, BinaryWriter out) {
+        int typeId = data != null ? registry.idOf(data.getClass()) : PayloadTypeRegistry.JSON_PAYLOAD;
+        List<String> fieldNames = typeId != PayloadTypeRegistry.JSON_PAYLOAD
+                ? registry.schema(typeId).fieldNames() : Collections.<String>emptyList();
+        long mask = 0;
+        for (String field : changedFields) {
+            int bit = fieldNames.indexOf(field);
+            if (bit < 0 || bit >= 64) {
+                // Not expressible as a mask: fall back to names
+                typeId = PayloadTypeRegistry.JSON_PAYLOAD;
+                break;
+            }
+            mask |= 1L << bit;
+        }
+        out.writeVarLong(typeId);
+        if (typeId != PayloadTypeRegistry.JSON_PAYLOAD) {
+            out.writeVarLong(mask);
+            return;
+        }
+        out.writeVarLong(changedFields.size());
+        for (String field : changedFields) {
+            out.writeString(field);
+        }
+    }
+
+    private List<String> readChangedFields(BinaryReader in) {
+        int typeId = (int) in.readVarLong();
+        List<String> changedFields = new ArrayList<>();
+        if (typeId == PayloadTypeRegistry.JSON_PAYLOAD) {
+            long count = in.readVarLong();
+            for (long i = 0; i < count; i++) {
+                changedFields.add(in.readString());
+            }
+            return changedFields;
+        }
+        PayloadSchema<?> schema = registry.schema(typeId);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown payload type id " + typeId);
+        }
+        long mask = in.readVarLong();
+        List<String> fieldNames = schema.fieldNames();
+        for (int bit = 0; bit < fieldNames.size(); bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                changedFields.add(fieldNames.get(bit));
+            }
+        }
+        return changedFields;
+    }
+
+    private static int operationCode(String operation) {
+        for (int code = 1; code < OPERATIONS.length; code++) {
+            if (OPERATIONS[code].equals(operation)) {
+                return code;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.cdcdemo.codec;
+
+import com.example.cdcdemo.model.Customer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link Customer} as a presence bitmask followed by the non-null fields in declaration order.
+ */
+public class CustomerPayloadSchema implements PayloadSchema<Customer> {
+
+    private static final int ID = 1;
+    private static final int NAME = 1 << 1;
+    private static final int EMAIL = 1 << 2;
+    private static final int PHONE = 1 << 3;
+    private static final int ADDRESS = 1 << 4;
+    private static final int VERSION = 1 << 5;
+
+    private static final List<String> FIELD_NAMES = Collections.unmodifiableList(
+            Arrays.asList("id", "name", "email", "phone", "address", "version"));
+
+    @Override
+    public Class<Customer> type() {
+        return Customer.class;
+    }
+
+    @Override
+    public void write(Customer customer, BinaryWriter out) {
+        int present = (customer.getId() != null ? ID : 0)
+                | (customer.getName() != null ? NAME : 0)
+                | (customer.getEmail() != null ? EMAIL : 0)
+                | (customer.getPhone() != null ? PHONE : 0)
+                | (customer.getAddress() != null ? ADDRESS : 0)
+                | (customer.getVersion() != null ? VERSION : 0);
+        out.writeVarLong(present);
+        if ((present & ID) != 0) {
+            out.writeSignedVarLong(customer.getId());
+        }
+        if ((present & NAME) != 0) {
+            out.writeString(customer.getName());
+        }
+        if ((present & EMAIL) != 0) {
+            out.writeString(customer.getEmail());
+        }
+        if ((present & PHONE) != 0) {
+            out.writeString(customer.getPhone());
+        }
+        if ((present & ADDRESS) != 0) {
+            out.writeString(customer.getAddress());
+        }
+        if ((present & VERSION) != 0) {
+            out.writeSignedVarLong(customer.getVersion());
+        }
+    }
+
+    @Override
+    public Customer read(BinaryReader in) {
+        long present = in.readVarLong();
+        Customer customer = new Customer();
+        if ((present & ID) != 0) {
+            customer.setId(in.readSignedVarLong());
+        }
+        if ((present & NAME) != 0) {
+            customer.setName(in.readString());
+        }
+        if ((present & EMAIL) != 0) {
+            customer.setEmail(in.readString());
+        }
+        if ((present & PHONE) != 0) {
+            customer.setPhone(in.readString());
+        }
+        if ((present & ADDRESS) != 0) {
+            customer.setAddress(in.readString());
+        }
+        if ((present & VERSION) != 0) {
+            customer.setVersion(in.readSignedVarLong());
+        }
+        return customer;
+    }
+
+    @Override
+    public List<String> fieldNames() {
+        return FIELD_NAMES;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.cdcdemo.codec;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binary layout of one entity payload type.
+ * <p>
+ * Payloads are written inside a length-prefixed block, so a schema may only ever add fields at the
+ * end: older readers stop after the fields they know, and newer readers must treat missing trailing
+ * fields as absent ({@link BinaryReader#remaining()} is 0).
+ */
+public interface PayloadSchema<T> {
+
+    Class<T> type();
+
+    void write(T value, BinaryWriter out);
+
+    T read(BinaryReader in);
+
+    /**
+     * Field names in a fixed order, so a set of changed fields can be sent as a bitmask over them.
+     * Like the layout, the list may only grow at the end.
+     */
+    default List<String> fieldNames() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.cdcdemo.codec;
+
+import com.example.cdcdemo.model.Customer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Numeric ids of the payload types the binary format can write natively. An id is part of the wire
+ * format: once assigned it must never be reused for another type. Id 0 is reserved for payloads
+ * without a schema, which are embedded as JSON.
+ */
+public class PayloadTypeRegistry {
+
+    public static final int JSON_PAYLOAD = 0;
+
+    private final Map<Class<?>, Integer> idsByType = new HashMap<>();
+    private final Map<Integer, PayloadSchema<?>> schemasById = new HashMap<>();
+
+    /**
+     * The types this application publishes: 1 = {@link Customer}
+     */
+    public static PayloadTypeRegistry defaults() {
+        return new PayloadTypeRegistry().register(1, new CustomerPayloadSchema());
+    }
+
+    public PayloadTypeRegistry register(int id, PayloadSchema<?> schema) {
+        if (id == JSON_PAYLOAD || schemasById.containsKey(id) || idsByType.containsKey(schema.type())) {
+            throw new IllegalArgumentException("Payload type id " + id + " or " + schema.type().getName()
+                    + " is already registered");
+        }
+        idsByType.put(schema.type(), id);
+        schemasById.put(id, schema);
+        return this;
+    }
+
+    /**
+     * @return the type's id, or {@link #JSON_PAYLOAD} if it has no schema
+     */
+    public int idOf(Class<?> type) {
+        Integer id = idsByType.get(type);
+        return id != null ? id : JSON_PAYLOAD;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> PayloadSchema<T> schema(int id) {
+        return (PayloadSchema<T>) schemasById.get(id);
+    }
+}
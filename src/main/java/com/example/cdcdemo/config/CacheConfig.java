@@ -0,0 +1,110 @@
+package com.example.cdcdemo.config;
+
+import com.example.cdcdemo.cache.CacheInvalidationBus;
+import com.example.cdcdemo.cache.JitteredRedisCacheWriter;
+import com.example.cdcdemo.cache.RedisUnitOfWork;
+import com.example.cdcdemo.cache.TwoLevelCacheManager;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * 缓存配置：Redis 作为二级缓存，前面加一层进程内一级缓存，通过 Redis pub/sub 广播失效
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(RedisTemplate<String, Object> redisTemplate,
+                                                     ObjectMapper objectMapper,
+                                                     NearCacheProperties nearCacheProperties) {
+        return new CacheInvalidationBus(redisTemplate, objectMapper, nearCacheProperties);
+    }
+
+    /**
+     * Redis 缓存的键规则与序列化：键为 {cacheName}::{key}，值统一用带类型信息的 JSON
+     */
+    @Bean
+    public RedisCacheConfiguration redisCacheConfiguration(CacheProperties cacheProperties, ObjectMapper objectMapper) {
+        return fromProperties(cacheProperties.getRedis())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        cacheValueSerializer(objectMapper)));
+    }
+
+    /**
+     * 写入 Redis 缓存时按 cdc.cache.redis.ttl-jitter 打散 TTL，避免同一批写入的条目同时过期
+     */
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, RedisCacheConfiguration redisCacheConfiguration,
+                                     NearCacheProperties nearCacheProperties, CacheInvalidationBus cacheInvalidationBus,
+                                     RedisUnitOfWork redisUnitOfWork, MeterRegistry meterRegistry) {
+        RedisCacheWriter cacheWriter = new JitteredRedisCacheWriter(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), redisUnitOfWork::jitter);
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(cacheWriter)
+                .cacheDefaults(redisCacheConfiguration)
+                .build();
+        redisCacheManager.initializeCaches();
+        if (!nearCacheProperties.isEnabled()) {
+            return redisCacheManager;
+        }
+        return new TwoLevelCacheManager(redisCacheManager, nearCacheProperties, cacheInvalidationBus, meterRegistry);
+    }
+
+    /**
+     * 订阅失效频道，收到其他节点的失效消息后清理本地一级缓存
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheInvalidationBus cacheInvalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheInvalidationBus.getChannel()));
+        return container;
+    }
+
+    /**
+     * 复用应用的 ObjectMapper（含 JavaTimeModule），并像 GenericJackson2JsonRedisSerializer 默认那样写入 @class，
+     * 以便缓存的 Customer 与 List 能还原为原类型
+     */
+    private static RedisSerializer<Object> cacheValueSerializer(ObjectMapper objectMapper) {
+        ObjectMapper mapper = objectMapper.copy();
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(mapper, null);
+        mapper.activateDefaultTyping(mapper.getPolymorphicTypeValidator(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+
+    // 与 Spring Boot 自动配置的 RedisCacheManager 保持一致 (spring.cache.redis.*)
+    private static RedisCacheConfiguration fromProperties(CacheProperties.Redis redis) {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig();
+        if (redis.getTimeToLive() != null) {
+            config = config.entryTtl(redis.getTimeToLive());
+        }
+        if (redis.getKeyPrefix() != null) {
+            config = config.prefixCacheNameWith(redis.getKeyPrefix());
+        }
+        if (!redis.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        if (!redis.isUseKeyPrefix()) {
+            config = config.disableKeyPrefix();
+        }
+        return config;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.cdcdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * binlog 捕获相关配置 (cdc.capture.*)，仅在 cdc.publisher.mode=binlog 时生效
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cdc.capture")
+public class CaptureProperties {
+
+    private String host = "localhost";
+
+    private int port = 3306;
+
+    /**
+     * 需要 REPLICATION SLAVE, REPLICATION CLIENT 权限
+     */
+    private String username = "root";
+
+    private String password = "";
+
+    /**
+     * 只捕获该库中的表
+     */
+    private String database = "cdcdemo";
+
+    /**
+     * 作为复制客户端使用的 server id，集群内必须唯一
+     */
+    private long serverId = 65535;
+
+    /**
+     * 捕获的表 -> 事件中的 entityType
+     */
+    private Map<String, String> tables = new LinkedHashMap<>();
+
+    /**
+     * checkpoint 表中的记录名，多个捕获实例需各自不同
+     */
+    private String checkpointName = "default";
+
+    /**
+     * checkpoint 最短写入间隔
+     */
+    private Duration checkpointInterval = Duration.ofSeconds(1);
+
+    /**
+     * 连接失败或发送失败后重连的等待时间
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    public CaptureProperties() {
+        tables.put("customers", "customer");
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.cdcdemo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class IntegrationExecutorConfig {
+
+    /**
+     * 集成作业专用线程池：固定数量的 worker + 有界等待队列
+     */
+    @Bean(name = "integrationJobExecutor")
+    public ThreadPoolTaskExecutor integrationJobExecutor(IntegrationProperties properties) {
+        IntegrationProperties.Executor config = properties.getExecutor();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getWorkers());
+        executor.setMaxPoolSize(config.getWorkers());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("integration-job-");
+        // 队列满时直接拒绝（默认 AbortPolicy），由调用方返回 503
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.cdcdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 数据集成相关配置 (cdc.integration.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cdc.integration")
+public class IntegrationProperties {
+
+    private Executor executor = new Executor();
+
+    /**
+     * 批量写入时每个事务处理的记录数
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * 单个作业内并行写入的分区数，可用 sourceConfig.partitionWorkers 按作业覆盖；按 customer id 哈希分区，
+     * 同一 id 的记录仍按源顺序写入。写入时每个分区占用一个数据库连接
+     */
+    private int partitionWorkers = 4;
+
+    /**
+     * 运行中作业的进度计数器从 Redis 同步到 integration_jobs 的间隔
+     */
+    private Duration progressFlushInterval = Duration.ofSeconds(5);
+
+    private Events events = new Events();
+
+    private Recovery recovery = new Recovery();
+
+    private Scheduler scheduler = new Scheduler();
+
+    @Data
+    public static class Executor {
+        /**
+         * 同时运行的作业数
+         */
+        private int workers = 4;
+
+        /**
+         * 等待队列容量，队列满时拒绝新作业
+         */
+        private int queueCapacity = 100;
+    }
+
+    @Data
+    public static class Events {
+        /**
+         * 作业状态与进度变更广播的 Redis pub/sub 频道
+         */
+        private String channel = "integration:status:events";
+
+        /**
+         * SSE 连接的最长保持时间，到期后客户端应重连
+         */
+        private Duration sseTimeout = Duration.ofMinutes(30);
+
+        /**
+         * 长轮询最长等待时间
+         */
+        private Duration maxPollTimeout = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class Recovery {
+        /**
+         * 作业租约时长：持有节点超过此时间未续期，作业视为孤儿，可被其他节点接管
+         */
+        private Duration leaseDuration = Duration.ofSeconds(60);
+
+        /**
+         * 续期（心跳）间隔，应明显小于租约时长
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+    }
+
+    @Data
+    public static class Scheduler {
+        /**
+         * 各节点按空闲 worker 数从共享作业表领取作业（含孤儿作业与分片）的轮询间隔
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        /**
+         * 全集群等待中的作业上限，超过后拒绝新作业
+         */
+        private int maxPending = 1000;
+
+        /**
+         * 单个作业最多拆分的分片数 (sourceConfig.shards)；分片按 id 哈希划分，每个分片都会完整读取一遍数据源
+         */
+        private int maxShards = 64;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.cdcdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 进程内一级缓存配置 (cdc.cache.local.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cdc.cache.local")
+public class NearCacheProperties {
+
+    /**
+     * 是否在 Redis 前加一级进程内缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个缓存的最大条目数，超出后按 W-TinyLFU 淘汰
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * 写入后的过期时间；失效消息是 pub/sub 投递，丢失时以此兜底
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+    /**
+     * 失效广播的 Redis pub/sub 频道
+     */
+    private String invalidationChannel = "cdc:cache:invalidate";
+}
@@ -0,0 +1,129 @@
+package com.example.cdcdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 变更事件发布相关配置 (cdc.publisher.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cdc.publisher")
+public class PublisherProperties {
+
+    /**
+     * 发布模式
+     */
+    private Mode mode = Mode.DIRECT;
+
+    /**
+     * 发送变更事件使用的编码；消费端按消息的 content-type 解码，两种编码可同时在队列中
+     */
+    private Encoding encoding = Encoding.JSON;
+
+    /**
+     * UPDATE 事件是否携带前镜像 (DataChangeEvent.before)；关闭后仍携带版本号和变化字段，消息更小
+     */
+    private boolean beforeImage = true;
+
+    private Batch batch = new Batch();
+
+    private Outbox outbox = new Outbox();
+
+    public enum Mode {
+        /**
+         * 每个事件同步 convertAndSend
+         */
+        DIRECT,
+        /**
+         * 事务提交后入缓冲区，按数量/时间批量发送，异步 publisher confirm
+         */
+        BATCHED,
+        /**
+         * 与业务数据同一事务写入 outbox 表，由后台 relay 批量发送
+         */
+        OUTBOX,
+        /**
+         * 应用层不发布事件，由 BinlogCaptureEngine 从 MySQL binlog 捕获变更
+         */
+        BINLOG
+    }
+
+    public enum Encoding {
+        /**
+         * Jackson JSON (application/json)，data 在消费端为 Map
+         */
+        JSON,
+        /**
+         * 紧凑二进制格式 (application/x-cdc-event)，已注册的实体类型直接解码为实体对象；
+         * 需先升级所有消费端再切换生产端
+         */
+        BINARY
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * 单条 AMQP 消息中最多打包的事件数
+         */
+        private int size = 200;
+
+        /**
+         * 缓冲区最长停留时间，到时即发送
+         */
+        private Duration flushInterval = Duration.ofMillis(50);
+
+        /**
+         * 已发送但尚未 confirm 的批次上限，达到后发送方阻塞
+         */
+        private int maxInFlight = 32;
+
+        /**
+         * 被 nack 或 confirm 超时的批次最多重发次数
+         */
+        private int maxRetries = 3;
+
+        /**
+         * 等待 broker confirm 的超时时间
+         */
+        private Duration confirmTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 事务提交后立即发送该事务的事件，而不是等待 flushInterval；开启 coalesce 时不生效
+         */
+        private boolean flushOnCommit = true;
+
+        /**
+         * 缓冲区内同一实体的多个事件合并为最新状态（CREATE+UPDATE→CREATE，CREATE+DELETE→不发送等），
+         * 合并窗口即 flushInterval（缓冲区先满则提前发送）。开启后提交时不再立即 flush（flushOnCommit 被忽略），
+         * 事件最多延迟 flushInterval 发送，换取跨事务合并
+         */
+        private boolean coalesce = false;
+    }
+
+    @Data
+    public static class Outbox {
+        /**
+         * relay 每次锁定并发送的行数
+         */
+        private int batchSize = 500;
+
+        /**
+         * relay 轮询间隔
+         */
+        private Duration pollInterval = Duration.ofMillis(200);
+
+        /**
+         * 每次轮询最多连续发送的批次数，避免长期占用调度线程
+         */
+        private int maxBatchesPerPoll = 20;
+
+        /**
+         * 已发送事件的保留时间
+         */
+        private Duration retention = Duration.ofHours(24);
+    }
+}
@@ -1,51 +1,143 @@
 package com.example.cdcdemo.config;
 
 
+import com.example.cdcdemo.codec.BinaryChangeEventMessageConverter;
+import com.example.cdcdemo.codec.ChangeEventBinaryCodec;
+import com.example.cdcdemo.codec.PayloadTypeRegistry;
+import com.example.cdcdemo.publisher.ConfirmingBatchPublisher;
+import com.example.cdcdemo.publisher.MessageSender;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
+@Slf4j
 public class RabbitMQConfig {
 
     public static final String EXCHANGE_NAME = "cdc.exchange";
     public static final String QUEUE_NAME = "cdc.queue";
     public static final String ROUTING_KEY = "cdc.routingkey";
+    public static final String BATCH_CONTAINER_FACTORY = "cdcBatchContainerFactory";
+    public static final String DEAD_LETTER_EXCHANGE = "cdc.dlx";
+    public static final String DEAD_LETTER_QUEUE = "cdc.queue.dlq";
+
+    /**
+     * 第 i 个分区的队列名，如 cdc.queue.3
+     */
+    public static String partitionQueue(int partition) {
+        return QUEUE_NAME + "." + partition;
+    }
+
+    /**
+     * 第 i 个分区的路由键，如 cdc.routingkey.3
+     */
+    public static String partitionRoutingKey(int partition) {
+        return ROUTING_KEY + "." + partition;
+    }
 
     @Bean
     public DirectExchange exchange() {
         return new DirectExchange(EXCHANGE_NAME);
     }
 
+    /**
+     * 死信交换机和队列：消费端拒绝（不重入队）的消息进入 cdc.queue.dlq 保留，排查后可重新投递
+     */
     @Bean
-    public Queue queue() {
-        return new Queue(QUEUE_NAME, true);
+    public Declarables deadLetterQueue() {
+        DirectExchange exchange = new DirectExchange(DEAD_LETTER_EXCHANGE);
+        Queue queue = QueueBuilder.durable(DEAD_LETTER_QUEUE).build();
+        return new Declarables(exchange, queue, BindingBuilder.bind(queue).to(exchange).with(DEAD_LETTER_QUEUE));
     }
 
+    /**
+     * 每个分区一个持久队列，x-single-active-consumer 保证多节点部署时每个分区同一时刻只有一个消费者；
+     * 被拒绝的消息转入死信队列。队列参数不可修改，已存在的无死信配置的分区队列需删除重建（或改用 policy 配置）
+     */
     @Bean
-    public Binding binding(Queue queue, DirectExchange exchange) {
-        return BindingBuilder.bind(queue).to(exchange).with(ROUTING_KEY);
+    public Declarables partitionQueues(DirectExchange exchange, RoutingProperties routingProperties) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int i = 0; i < routingProperties.getPartitions(); i++) {
+            Queue queue = QueueBuilder.durable(partitionQueue(i)).singleActiveConsumer()
+                    .deadLetterExchange(DEAD_LETTER_EXCHANGE).deadLetterRoutingKey(DEAD_LETTER_QUEUE)
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with(partitionRoutingKey(i)));
+        }
+        return new Declarables(declarables);
     }
 
+    /**
+     * 按 content-type 选择编解码：发送使用 cdc.publisher.encoding，接收时 JSON 与二进制消息都能解码，
+     * 便于新旧生产者、消费者共存
+     */
     @Bean
-    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
-        return new Jackson2JsonMessageConverter(objectMapper);
+    public MessageConverter changeEventMessageConverter(ObjectMapper objectMapper, PublisherProperties publisherProperties) {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter(objectMapper);
+        BinaryChangeEventMessageConverter binary = new BinaryChangeEventMessageConverter(
+                new ChangeEventBinaryCodec(PayloadTypeRegistry.defaults(), objectMapper));
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(
+                publisherProperties.getEncoding() == PublisherProperties.Encoding.BINARY ? binary : json);
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        converter.addDelegate(BinaryChangeEventMessageConverter.CONTENT_TYPE, binary);
+        return converter;
     }
 
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter changeEventMessageConverter) {
         final RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter);
+        rabbitTemplate.setMessageConverter(changeEventMessageConverter);
+        // 批量模式通过 CorrelationData 的 future 处理 confirm，这里只记录日志
         rabbitTemplate.setConfirmCallback((correlationData, ack, cause) -> {
             if (!ack) {
-                System.err.println("消息发送失败: " + cause);
+                log.warn("消息发送失败: {} ({})", cause, correlationData != null ? correlationData.getId() : "no correlation");
             }
         });
         return rabbitTemplate;
     }
+
+    @Bean
+    public MessageSender messageSender(RabbitTemplate rabbitTemplate) {
+        return rabbitTemplate::send;
+    }
+
+    /**
+     * 批量 + 异步 confirm 的事件发布器
+     */
+    @Bean(destroyMethod = "close")
+    public ConfirmingBatchPublisher confirmingBatchPublisher(MessageSender messageSender,
+                                                             MessageConverter changeEventMessageConverter,
+                                                             PublisherProperties publisherProperties,
+                                                             MeterRegistry meterRegistry) {
+        return new ConfirmingBatchPublisher(messageSender, changeEventMessageConverter, EXCHANGE_NAME,
+                publisherProperties.getBatch(), meterRegistry);
+    }
+
+    /**
+     * 批量消费的容器工厂：并发、prefetch、batch-size 沿用 spring.rabbitmq.listener.simple 配置，
+     * 开启 consumer batch 并改为手动 ack
+     */
+    @Bean(BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory cdcBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
 }
@@ -0,0 +1,25 @@
+package com.example.cdcdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 写入相关配置 (cdc.cache.redis.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cdc.cache.redis")
+public class RedisWriteProperties {
+
+    /**
+     * TTL 随机抖动比例：实际 TTL 在 [ttl * (1 - jitter), ttl * (1 + jitter)] 内均匀分布，
+     * 避免同一时刻写入的大量键同时过期；0 表示不抖动
+     */
+    private double ttlJitter = 0.1;
+
+    /**
+     * 删除键时使用 UNLINK（在后台线程回收内存，大键不阻塞 Redis），关闭后使用 DEL
+     */
+    private boolean unlink = true;
+}
@@ -0,0 +1,20 @@
+package com.example.cdcdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 变更事件分区路由配置 (cdc.routing.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cdc.routing")
+public class RoutingProperties {
+
+    /**
+     * 分区队列数量。同一实体的事件始终进入同一分区，每个分区只有一个活跃消费者；
+     * 修改该值会改变实体与分区的对应关系，需在队列排空后进行
+     */
+    private int partitions = 8;
+}
@@ -0,0 +1,58 @@
+package com.example.cdcdemo.config;
+
+import com.example.cdcdemo.sink.ChangeEventSink;
+import com.example.cdcdemo.sink.SearchIndexSink;
+import com.example.cdcdemo.sink.SegmentedFileSink;
+import com.example.cdcdemo.sink.SinkDispatcher;
+import com.example.cdcdemo.sink.WebhookSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.stream.Collectors;
+
+/**
+ * 变更事件下游 sink：每个 ChangeEventSink bean 都有独立的队列和写线程，互不阻塞
+ */
+@Configuration
+public class SinkConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cdc.sink.search", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SearchIndexSink searchIndexSink(ObjectMapper objectMapper) {
+        return new SearchIndexSink(objectMapper);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "cdc.sink.file", name = "enabled", havingValue = "true")
+    public SegmentedFileSink segmentedFileSink(SinkProperties sinkProperties, ObjectMapper objectMapper) throws IOException {
+        SinkProperties.File file = sinkProperties.getFile();
+        return new SegmentedFileSink(Paths.get(file.getDirectory()), file.getSegmentSize().toBytes(), file.isFsync(),
+                objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cdc.sink.webhook", name = "enabled", havingValue = "true")
+    public WebhookSink webhookSink(SinkProperties sinkProperties, RestTemplateBuilder restTemplateBuilder) {
+        SinkProperties.Webhook webhook = sinkProperties.getWebhook();
+        return new WebhookSink(restTemplateBuilder
+                .setConnectTimeout(webhook.getConnectTimeout())
+                .setReadTimeout(webhook.getReadTimeout())
+                .build(), webhook.getUrl());
+    }
+
+    /**
+     * 先于各 sink 关闭，停止前把队列中的事件写完
+     */
+    @Bean(destroyMethod = "close")
+    public SinkDispatcher sinkDispatcher(ObjectProvider<ChangeEventSink> sinks, SinkProperties sinkProperties,
+                                         MeterRegistry meterRegistry) {
+        return new SinkDispatcher(sinks.orderedStream().collect(Collectors.toList()), sinkProperties, meterRegistry);
+    }
+}
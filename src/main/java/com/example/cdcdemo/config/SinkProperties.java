@@ -0,0 +1,110 @@
+package com.example.cdcdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 变更事件下游 sink 配置 (cdc.sink.*)；队列、批量与重试参数对每个 sink 分别生效
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cdc.sink")
+public class SinkProperties {
+
+    /**
+     * 每个 sink 的队列容量；队列满时消费端等待，形成背压
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * 每次写入 sink 的最大事件数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 凑批的最长等待时间，到时即写入
+     */
+    private Duration linger = Duration.ofMillis(50);
+
+    /**
+     * 一批写入的最多尝试次数（含第一次），用尽后该批计为失败并丢弃。消费端此时已确认消息，丢弃的事件不会重投；
+     * 设为 0 则一直重试直到写入成功，sink 故障期间队列写满后由背压拖慢消费端
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * 第一次重试前的等待时间，之后每次翻倍
+     */
+    private Duration initialBackoff = Duration.ofMillis(100);
+
+    /**
+     * 重试等待时间上限
+     */
+    private Duration maxBackoff = Duration.ofSeconds(5);
+
+    /**
+     * 队列满时消费端最多等待多久；超时后该 sink 丢弃这些事件并计数（同样不会重投），不影响其他 sink。
+     * 设为 0 则一直等待，不丢弃
+     */
+    private Duration offerTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 停止时等待队列写完的最长时间
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    private Search search = new Search();
+
+    private File file = new File();
+
+    private Webhook webhook = new Webhook();
+
+    @Data
+    public static class Search {
+        /**
+         * 进程内倒排索引，按 name/email/phone/address 的词检索客户
+         */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class File {
+        /**
+         * 追加写入的分段事件日志，每行一个 JSON 事件
+         */
+        private boolean enabled = false;
+
+        /**
+         * 分段文件所在目录
+         */
+        private String directory = "data/sink";
+
+        /**
+         * 单个分段的大小上限，超出后滚动到新分段
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * 每批写入后 fsync，宕机不丢已确认的批次，但吞吐更低
+         */
+        private boolean fsync = false;
+    }
+
+    @Data
+    public static class Webhook {
+        /**
+         * 按批 POST JSON 数组到指定地址，非 2xx 响应会重试
+         */
+        private boolean enabled = false;
+
+        private String url = "http://localhost:8081/events";
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration readTimeout = Duration.ofSeconds(5);
+    }
+}
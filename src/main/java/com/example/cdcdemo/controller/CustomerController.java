@@ -1,12 +1,25 @@
 package com.example.cdcdemo.controller;
 
+import com.example.cdcdemo.model.BulkResult;
 import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.CustomerQuery;
+import com.example.cdcdemo.service.CustomerBulkService;
+import com.example.cdcdemo.service.ConcurrentCustomerUpdateException;
+import com.example.cdcdemo.service.CustomerNotFoundException;
 import com.example.cdcdemo.service.CustomerService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -14,11 +27,54 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CustomerController {
 
+    public static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
+    // 导出时每写出多少条 flush 一次
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
+    public static final String NDJSON = "application/x-ndjson";
+
     private final CustomerService customerService;
+    private final CustomerBulkService customerBulkService;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * 分页列表：GET /api/customers?afterId=&limit=&name=&email=&phone=
+     * 页满时通过 X-Next-After-Id 返回下一页的 afterId
+     */
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    public ResponseEntity<List<Customer>> listCustomers(CustomerQuery query) {
+        List<Customer> customers = customerService.listCustomers(query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (customers.size() == CustomerService.pageSize(query)) {
+            response.header(NEXT_AFTER_ID_HEADER, String.valueOf(customers.get(customers.size() - 1).getId()));
+        }
+        return response.body(customers);
+    }
+
+    /**
+     * 全量导出：按 id 顺序从数据库游标逐行写出 JSON 数组，不在内存中组装完整列表
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(CustomerQuery query) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                int[] written = {0};
+                customerService.exportCustomers(query, customer -> {
+                    try {
+                        generator.writeObject(customer);
+                        if (++written[0] % EXPORT_FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -33,12 +89,17 @@ public class CustomerController {
         return new ResponseEntity<>(customerService.createCustomer(customer), HttpStatus.CREATED);
     }
 
+    /**
+     * 更新客户：不存在返回 404；读取后被并发修改（版本号不符）返回 409，客户端应重新读取后再提交
+     */
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(@PathVariable Long id, @RequestBody Customer customer) {
         try {
             return ResponseEntity.ok(customerService.updateCustomer(id, customer));
-        } catch (RuntimeException e) {
+        } catch (CustomerNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (ConcurrentCustomerUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -47,8 +108,44 @@ public class CustomerController {
         try {
             customerService.deleteCustomer(id);
             return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
+        } catch (CustomerNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量创建：请求体为 JSON 数组或 NDJSON（每行一个对象），边读边按 chunk 写入
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkResult> bulkCreate(InputStream body) throws IOException {
+        try (MappingIterator<Customer> customers = objectMapper.readerFor(Customer.class).readValues(body)) {
+            return bulkResponse(customerBulkService.create(customers));
+        }
+    }
+
+    /**
+     * 批量 upsert：按 id 整行覆盖，不存在则创建
+     */
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkResult> bulkUpsert(InputStream body) throws IOException {
+        try (MappingIterator<Customer> customers = objectMapper.readerFor(Customer.class).readValues(body)) {
+            return bulkResponse(customerBulkService.upsert(customers));
+        }
+    }
+
+    /**
+     * 批量删除：请求体为 id 的 JSON 数组或 NDJSON（每行一个 id）
+     */
+    @DeleteMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BulkResult> bulkDelete(InputStream body) throws IOException {
+        try (MappingIterator<Long> ids = objectMapper.readerFor(Long.class).readValues(body)) {
+            return bulkResponse(customerBulkService.delete(ids));
+        }
+    }
+
+    // 部分失败时返回 422，响应体中带有已提交的数量
+    private ResponseEntity<BulkResult> bulkResponse(BulkResult result) {
+        HttpStatus status = result.getError() == null ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY;
+        return ResponseEntity.status(status).body(result);
+    }
+}
@@ -3,14 +3,23 @@ package com.example.cdcdemo.controller;
 import com.example.cdcdemo.model.integration.DataIntegrationRequest;
 import com.example.cdcdemo.model.integration.IntegrationStatus;
 import com.example.cdcdemo.service.DataIntegrationService;
+import com.example.cdcdemo.service.integration.IntegrationStatusBroadcaster;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.validation.Valid;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/integration")
@@ -18,6 +27,7 @@ import java.util.List;
 public class DataIntegrationController {
 
     private final DataIntegrationService integrationService;
+    private final IntegrationStatusBroadcaster statusBroadcaster;
 
     @PostMapping
     public ResponseEntity<IntegrationStatus> submitIntegration(
@@ -27,7 +37,15 @@ public class DataIntegrationController {
             request.setRequestTime(LocalDateTime.now());
         }
 
-        IntegrationStatus status = integrationService.submitIntegration(request);
+        IntegrationStatus status;
+        try {
+            status = integrationService.submitIntegration(request);
+        } catch (RejectedExecutionException e) {
+            // 作业队列已满，提示客户端稍后重试
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
         // 构造 Location 头指向状态查询 URL
         String location = "/api/integration/" + status.getIntegrationId();
         return ResponseEntity
@@ -51,4 +69,39 @@ public class DataIntegrationController {
     public ResponseEntity<List<IntegrationStatus>> getAllIntegrationJobs() {
         return ResponseEntity.ok(integrationService.getAllIntegrationJobs());
     }
+
+    /**
+     * 单个作业的状态推送（SSE）：先推送当前状态，之后每次状态或进度变化推送一次，作业结束后关闭
+     */
+    @GetMapping(value = "/{integrationId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamIntegrationStatus(@PathVariable String integrationId) {
+        IntegrationStatus status = integrationService.getIntegrationStatus(integrationId);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(statusBroadcaster.subscribe(status));
+    }
+
+    /**
+     * 所有作业的状态推送（SSE）
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAllIntegrationStatus() {
+        return statusBroadcaster.subscribeAll();
+    }
+
+    /**
+     * 长轮询（不支持 SSE 的客户端）：等待下一次状态变化，超时则返回当前状态
+     */
+    @GetMapping("/{integrationId}/poll")
+    public DeferredResult<IntegrationStatus> pollIntegrationStatus(
+            @PathVariable String integrationId,
+            @RequestParam(defaultValue = "30") long timeoutSeconds) {
+        IntegrationStatus status = integrationService.getIntegrationStatus(integrationId);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Integration job not found: " + integrationId);
+        }
+        return statusBroadcaster.poll(status, Duration.ofSeconds(timeoutSeconds),
+                () -> integrationService.getIntegrationStatus(integrationId));
+    }
 }
@@ -0,0 +1,165 @@
+package com.example.cdcdemo.listener;
+
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareBatchMessageListener;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumes a partition queue in batches (cdc.consumer.mode=batch) with manual acknowledgement.
+ * <p>
+ * A batch that is handled successfully is acked with a single multiple-ack on its last delivery tag.
+ * If the batch fails it is retried delivery by delivery. A producer-batched AMQP message arrives as
+ * several messages sharing one delivery tag, so each delivery is handled as a unit and settled exactly
+ * once:
+ * <ul>
+ *     <li>handled: acked;</li>
+ *     <li>a store (Redis, database) failed: requeued together with the rest of the batch, in order,
+ *     since the events themselves are fine;</li>
+ *     <li>any other failure: the events of the delivery that can be handled are, and the delivery is
+ *     rejected to the dead-letter queue, so one poison event cannot stall the partition. The whole AMQP
+ *     message is dead-lettered, good events included; replaying them is harmless as handling is
+ *     idempotent.</li>
+ * </ul>
+ */
+@Component(PartitionedListenerConfigurer.LISTENER_BEAN)
+@ConditionalOnProperty(prefix = "cdc.consumer", name = "mode", havingValue = "batch")
+@Slf4j
+public class BatchDatabaseChangeListener implements ChannelAwareBatchMessageListener {
+
+    private final ChangeEventHandler changeEventHandler;
+    private final MessageConverter messageConverter;
+
+    public BatchDatabaseChangeListener(ChangeEventHandler changeEventHandler, MessageConverter changeEventMessageConverter) {
+        this.changeEventHandler = changeEventHandler;
+        this.messageConverter = changeEventMessageConverter;
+    }
+
+    @Override
+    public void onMessageBatch(List<Message> messages, Channel channel) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            changeEventHandler.handle(toEvents(messages));
+            ack(channel, deliveryTag(messages.get(messages.size() - 1)), true);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} change events failed, retrying per delivery: {}", messages.size(), e.getMessage());
+        }
+
+        boolean requeueRest = false;
+        for (Map.Entry<Long, List<Message>> delivery : byDeliveryTag(messages).entrySet()) {
+            long deliveryTag = delivery.getKey();
+            Outcome outcome = requeueRest ? Outcome.REQUEUE : handleDelivery(deliveryTag, delivery.getValue());
+            switch (outcome) {
+                case ACK:
+                    ack(channel, deliveryTag, false);
+                    break;
+                case REQUEUE:
+                    requeueRest = true;
+                    reject(channel, deliveryTag, true);
+                    break;
+                default:
+                    reject(channel, deliveryTag, false);
+            }
+        }
+    }
+
+    private Outcome handleDelivery(long deliveryTag, List<Message> fragments) {
+        try {
+            changeEventHandler.handle(toEvents(fragments));
+            return Outcome.ACK;
+        } catch (RuntimeException e) {
+            if (isStoreFailure(e)) {
+                log.warn("Requeueing change event delivery {}: {}", deliveryTag, e.getMessage());
+                return Outcome.REQUEUE;
+            }
+            if (fragments.size() == 1) {
+                log.error("Dead-lettering change event delivery {}: {}", deliveryTag, e.getMessage());
+                return Outcome.DEAD_LETTER;
+            }
+        }
+
+        // Apply the fragments that can be handled before the message is dead-lettered
+        for (Message fragment : fragments) {
+            try {
+                changeEventHandler.handle(toEvents(Collections.singletonList(fragment)));
+            } catch (RuntimeException e) {
+                if (isStoreFailure(e)) {
+                    log.warn("Requeueing change event delivery {}: {}", deliveryTag, e.getMessage());
+                    return Outcome.REQUEUE;
+                }
+                log.error("Poison change event in delivery {}: {}", deliveryTag, e.getMessage());
+            }
+        }
+        log.error("Dead-lettering change event delivery {} of {} events", deliveryTag, fragments.size());
+        return Outcome.DEAD_LETTER;
+    }
+
+    private static Map<Long, List<Message>> byDeliveryTag(List<Message> messages) {
+        Map<Long, List<Message>> deliveries = new LinkedHashMap<>();
+        for (Message message : messages) {
+            deliveries.computeIfAbsent(deliveryTag(message), tag -> new ArrayList<>()).add(message);
+        }
+        return deliveries;
+    }
+
+    // Redis or the database being unavailable says nothing about the event; anything else does
+    private static boolean isStoreFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<DataChangeEvent> toEvents(List<Message> messages) {
+        List<DataChangeEvent> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            events.add(toEvent(message));
+        }
+        return events;
+    }
+
+    private DataChangeEvent toEvent(Message message) {
+        return (DataChangeEvent) messageConverter.fromMessage(message);
+    }
+
+    private static long deliveryTag(Message message) {
+        return message.getMessageProperties().getDeliveryTag();
+    }
+
+    private static void ack(Channel channel, long deliveryTag, boolean multiple) {
+        try {
+            channel.basicAck(deliveryTag, multiple);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to ack change events", e);
+        }
+    }
+
+    private static void reject(Channel channel, long deliveryTag, boolean requeue) {
+        try {
+            channel.basicNack(deliveryTag, false, requeue);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to reject change event", e);
+        }
+    }
+
+    private enum Outcome {
+        ACK, REQUEUE, DEAD_LETTER
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.cdcdemo.listener;
+
+import com.example.cdcdemo.cache.CustomerCache;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.example.cdcdemo.sink.SinkDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies consumed change events, one batch at a time.
+ * <p>
+ * Events are dispatched by entity type and operation; updates that report no changed fields are
+ * skipped. Cache entries for every customer touched by the
+ * batch are evicted at the end in one pipelined call, which also broadcasts the near-cache
+ * invalidation, so caches are refreshed no matter which path wrote the row. The customer events
+ * are then handed to the sinks, which write them on their own threads.
+ */
+@Component
+@Slf4j
+public class ChangeEventHandler {
+
+    private final CustomerCache customerCache;
+    private final SinkDispatcher sinkDispatcher;
+    private final ObjectMapper objectMapper;
+    private final Counter eventsHandled;
+    private final Counter eventsSkipped;
+
+    public ChangeEventHandler(CustomerCache customerCache, SinkDispatcher sinkDispatcher, ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.customerCache = customerCache;
+        this.sinkDispatcher = sinkDispatcher;
+        this.objectMapper = objectMapper;
+        this.eventsHandled = meterRegistry.counter("cdc.consumer.events.handled");
+        this.eventsSkipped = meterRegistry.counter("cdc.consumer.events.skipped");
+    }
+
+    public void handle(List<DataChangeEvent> events) {
+        Set<Long> customerIds = new LinkedHashSet<>();
+        List<DataChangeEvent> sinkEvents = new ArrayList<>(events.size());
+        for (DataChangeEvent event : events) {
+            dispatch(event, customerIds, sinkEvents);
+        }
+        if (!customerIds.isEmpty()) {
+            customerCache.evict(customerIds);
+        }
+        sinkDispatcher.dispatch(sinkEvents);
+        eventsHandled.increment(events.size());
+        log.debug("Handled {} data change events, evicted {} customers", events.size(), customerIds.size());
+    }
+
+    private void dispatch(DataChangeEvent event, Set<Long> customerIds, List<DataChangeEvent> sinkEvents) {
+        log.debug("Received data change event: {}", event);
+
+        // 处理不同类型的数据变更事件
+        if (!"customer".equals(event.getEntityType())) {
+            log.debug("Received event for entity type: {}", event.getEntityType());
+            return;
+        }
+        if ("UPDATE".equals(event.getOperation()) && event.getChangedFields() != null
+                && event.getChangedFields().isEmpty()) {
+            // 没有字段变化（如只改了版本号），无需同步，缓存也仍然有效
+            eventsSkipped.increment();
+            return;
+        }
+        if (event.getEntityId() != null) {
+            // 确保缓存中的数据已失效，覆盖绕过 CustomerService 的写入
+            customerIds.add(event.getEntityId());
+        }
+        switch (event.getOperation()) {
+            case "CREATE":
+            case "UPDATE":
+            case "DELETE":
+                // 同步到搜索索引、事件日志、webhook 等下游系统；data 统一转换为 Customer
+                Customer customer = toCustomer(event);
+                log.debug("Syncing {} customer to sinks: {}", event.getOperation(), customer);
+                event.setData(customer);
+                sinkEvents.add(event);
+                break;
+            default:
+                log.warn("Unknown operation type: {}", event.getOperation());
+        }
+    }
+
+    private Customer toCustomer(DataChangeEvent event) {
+        // 二进制编码直接解码为 Customer；JSON 编码和 binlog 捕获的事件是 LinkedHashMap，需要再转换一次
+        Object data = event.getData();
+        if (data instanceof Customer) {
+            return Customer.class.cast(data);
+        }
+        return objectMapper.convertValue(data, Customer.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.cdcdemo.listener;
+
+import com.example.cdcdemo.config.RabbitMQConfig;
+import com.example.cdcdemo.config.RoutingProperties;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers one listener container per partition queue, each with exactly one consumer.
+ * <p>
+ * A single container with several consumers on the same queue would hand events for one entity to
+ * different threads; one consumer per partition keeps them in order while partitions run in parallel.
+ * Across nodes, the queues' single-active-consumer flag keeps one consumer per partition cluster-wide.
+ */
+@Component
+public class PartitionedListenerConfigurer implements RabbitListenerConfigurer {
+
+    static final String LISTENER_BEAN = "cdcChangeListener";
+
+    private final MessageListener listener;
+    private final SimpleRabbitListenerContainerFactory containerFactory;
+    private final RoutingProperties routingProperties;
+
+    public PartitionedListenerConfigurer(@Qualifier(LISTENER_BEAN) MessageListener listener,
+                                         @Qualifier(RabbitMQConfig.BATCH_CONTAINER_FACTORY) SimpleRabbitListenerContainerFactory batchContainerFactory,
+                                         @Qualifier("rabbitListenerContainerFactory") SimpleRabbitListenerContainerFactory containerFactory,
+                                         @Value("${cdc.consumer.mode:single}") String mode,
+                                         RoutingProperties routingProperties) {
+        this.listener = listener;
+        this.containerFactory = "batch".equals(mode) ? batchContainerFactory : containerFactory;
+        this.routingProperties = routingProperties;
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (int i = 0; i < routingProperties.getPartitions(); i++) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("cdc-partition-" + i);
+            endpoint.setQueueNames(RabbitMQConfig.partitionQueue(i));
+            endpoint.setConcurrency("1-1");
+            endpoint.setMessageListener(listener);
+            registrar.registerEndpoint(endpoint, containerFactory);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.cdcdemo.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.cdcdemo.model.BinlogCheckpoint;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+@Mapper
+public interface BinlogCheckpointMapper extends BaseMapper<BinlogCheckpoint> {
+
+    @Insert("INSERT INTO cdc_binlog_checkpoint (name, binlog_file, binlog_position, gtid_set) " +
+            "VALUES (#{name}, #{binlogFile}, #{binlogPosition}, #{gtidSet}) " +
+            "ON DUPLICATE KEY UPDATE binlog_file = VALUES(binlog_file), " +
+            "binlog_position = VALUES(binlog_position), gtid_set = VALUES(gtid_set)")
+    int upsert(BinlogCheckpoint checkpoint);
+
+    /**
+     * 表的列名，按列顺序；binlog 未开启 binlog_row_metadata=FULL 时用来还原列名
+     */
+    @Select("SELECT COLUMN_NAME FROM information_schema.COLUMNS " +
+            "WHERE TABLE_SCHEMA = #{database} AND TABLE_NAME = #{table} ORDER BY ORDINAL_POSITION")
+    List<String> selectColumnNames(@Param("database") String database, @Param("table") String table);
+}
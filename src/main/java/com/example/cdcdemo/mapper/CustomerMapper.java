@@ -1,11 +1,64 @@
 package com.example.cdcdemo.mapper;
 
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.example.cdcdemo.model.Customer;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface CustomerMapper extends BaseMapper<Customer> {
-}
\ No newline at end of file
+
+    /**
+     * 多行插入（id 由数据库生成并回填），新行版本号为 1
+     */
+    @Insert("<script>" +
+            "INSERT INTO customers (name, email, phone, address, version) VALUES " +
+            "<foreach collection='list' item='c' separator=','>" +
+            "(#{c.name}, #{c.email}, #{c.phone}, #{c.address}, 1)" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insertBatch(@Param("list") List<Customer> customers);
+
+    /**
+     * 按主键加锁读取（SELECT ... FOR UPDATE），读到的版本号在事务结束前不会被其他写入者改变
+     */
+    @Select("<script>" +
+            "SELECT id, name, email, phone, address, version FROM customers WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " FOR UPDATE" +
+            "</script>")
+    List<Customer> selectBatchIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 多行 upsert：按主键插入或整行覆盖，版本号写入调用方给出的值（须先用 selectBatchIdsForUpdate 锁定已有行）
+     */
+    @Insert("<script>" +
+            "INSERT INTO customers (id, name, email, phone, address, version) VALUES " +
+            "<foreach collection='list' item='c' separator=','>" +
+            "(#{c.id}, #{c.name}, #{c.email}, #{c.phone}, #{c.address}, #{c.version})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE name = VALUES(name), email = VALUES(email)," +
+            " phone = VALUES(phone), address = VALUES(address), version = VALUES(version)" +
+            "</script>")
+    int upsertBatch(@Param("list") List<Customer> customers);
+
+    /**
+     * 流式读取（MySQL fetchSize = Integer.MIN_VALUE 时逐行返回），需在事务内消费
+     */
+    @Select("SELECT id, name, email, phone, address, version FROM customers ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<Customer> streamByWrapper(@Param(Constants.WRAPPER) Wrapper<Customer> wrapper);
+}
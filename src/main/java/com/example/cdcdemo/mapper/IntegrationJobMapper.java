@@ -3,7 +3,76 @@ package com.example.cdcdemo.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.cdcdemo.model.integration.IntegrationJob;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface IntegrationJobMapper extends BaseMapper<IntegrationJob> {
-}
\ No newline at end of file
+
+    /**
+     * 获取作业租约：未结束且无人持有、已过期或本节点已持有时成功
+     */
+    // MySQL 按书写顺序赋值，attempts 必须在 lease_owner 之前计算
+    @Update("UPDATE integration_jobs SET attempts = attempts + IF(lease_owner <=> #{owner}, 0, 1)," +
+            " lease_owner = #{owner}, lease_expires_at = TIMESTAMPADD(SECOND, #{leaseSeconds}, NOW())" +
+            " WHERE integration_id = #{integrationId} AND status IN ('PENDING', 'PROCESSING')" +
+            " AND (lease_owner IS NULL OR lease_owner = #{owner} OR lease_expires_at < NOW())")
+    int acquireLease(@Param("integrationId") String integrationId, @Param("owner") String owner,
+                     @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * 心跳：续期本节点持有的作业租约
+     */
+    @Update("<script>" +
+            "UPDATE integration_jobs SET lease_expires_at = TIMESTAMPADD(SECOND, #{leaseSeconds}, NOW())" +
+            " WHERE lease_owner = #{owner} AND integration_id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int renewLeases(@Param("ids") Collection<String> integrationIds, @Param("owner") String owner,
+                    @Param("leaseSeconds") long leaseSeconds);
+
+    @Update("UPDATE integration_jobs SET lease_owner = NULL, lease_expires_at = NULL" +
+            " WHERE integration_id = #{integrationId} AND lease_owner = #{owner}")
+    int releaseLease(@Param("integrationId") String integrationId, @Param("owner") String owner);
+
+    /**
+     * 记录检查点（与 chunk 写入在同一事务中）；租约已被其他节点接管时不更新任何行。
+     * checkpoint_success 只在这里写入，恢复时以它为准：records_* 还会被进度定时同步覆盖，与检查点不一致
+     */
+    @Update("UPDATE integration_jobs SET checkpoint_offset = #{offset}, checkpoint_success = #{success}," +
+            " records_processed = #{offset}," +
+            " records_success = #{success}, records_failed = #{offset} - #{success}" +
+            " WHERE integration_id = #{integrationId} AND lease_owner = #{owner}")
+    int checkpoint(@Param("integrationId") String integrationId, @Param("owner") String owner,
+                   @Param("offset") long offset, @Param("success") long success);
+
+    /**
+     * 可领取的作业：未分片、未结束且无人持有或租约已过期（持有节点宕机）。
+     * 需在事务中调用，SKIP LOCKED 让多个节点同时领取时互不等待、不重复
+     */
+    @Select("SELECT integration_id FROM integration_jobs" +
+            " WHERE status IN ('PENDING', 'PROCESSING') AND shard_count = 1" +
+            " AND (lease_owner IS NULL OR lease_expires_at < NOW())" +
+            " ORDER BY id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<String> selectClaimable(@Param("limit") int limit);
+
+    @Select("SELECT COUNT(*) FROM integration_jobs WHERE status = 'PENDING'")
+    long countPending();
+
+    /**
+     * 锁定作业行，串行化同一作业各分片的完成处理
+     */
+    @Select("SELECT id FROM integration_jobs WHERE integration_id = #{integrationId} FOR UPDATE")
+    Long lockJob(@Param("integrationId") String integrationId);
+
+    /**
+     * 分片作业的第一个分片开始时将作业置为 PROCESSING
+     */
+    @Update("UPDATE integration_jobs SET status = 'PROCESSING', start_time = NOW()" +
+            " WHERE integration_id = #{integrationId} AND status = 'PENDING'")
+    int markProcessing(@Param("integrationId") String integrationId);
+}
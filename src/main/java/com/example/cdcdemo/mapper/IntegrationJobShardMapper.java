@@ -0,0 +1,69 @@
+package com.example.cdcdemo.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.cdcdemo.model.integration.IntegrationJobShard;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface IntegrationJobShardMapper extends BaseMapper<IntegrationJobShard> {
+
+    @Insert("<script>" +
+            "INSERT INTO integration_job_shards (integration_id, shard_index, shard_count, status) VALUES " +
+            "<foreach collection='list' item='s' separator=','>" +
+            "(#{s.integrationId}, #{s.shardIndex}, #{s.shardCount}, #{s.status})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<IntegrationJobShard> shards);
+
+    /**
+     * 可领取的分片，语义同 IntegrationJobMapper.selectClaimable
+     */
+    @Select("SELECT id FROM integration_job_shards" +
+            " WHERE status IN ('PENDING', 'PROCESSING')" +
+            " AND (lease_owner IS NULL OR lease_expires_at < NOW())" +
+            " ORDER BY id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<Long> selectClaimable(@Param("limit") int limit);
+
+    // MySQL 按书写顺序赋值，attempts 必须在 lease_owner 之前计算
+    @Update("UPDATE integration_job_shards SET attempts = attempts + IF(lease_owner <=> #{owner}, 0, 1)," +
+            " lease_owner = #{owner}, lease_expires_at = TIMESTAMPADD(SECOND, #{leaseSeconds}, NOW())," +
+            " status = 'PROCESSING'" +
+            " WHERE id = #{id} AND status IN ('PENDING', 'PROCESSING')" +
+            " AND (lease_owner IS NULL OR lease_owner = #{owner} OR lease_expires_at < NOW())")
+    int acquireLease(@Param("id") Long id, @Param("owner") String owner, @Param("leaseSeconds") long leaseSeconds);
+
+    @Update("<script>" +
+            "UPDATE integration_job_shards SET lease_expires_at = TIMESTAMPADD(SECOND, #{leaseSeconds}, NOW())" +
+            " WHERE lease_owner = #{owner} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                    @Param("leaseSeconds") long leaseSeconds);
+
+    @Update("UPDATE integration_job_shards SET lease_owner = NULL, lease_expires_at = NULL" +
+            " WHERE id = #{id} AND lease_owner = #{owner}")
+    int releaseLease(@Param("id") Long id, @Param("owner") String owner);
+
+    @Update("UPDATE integration_job_shards SET checkpoint_offset = #{offset}," +
+            " records_processed = #{processed}, records_success = #{success}" +
+            " WHERE id = #{id} AND lease_owner = #{owner}")
+    int checkpoint(@Param("id") Long id, @Param("owner") String owner, @Param("offset") long offset,
+                   @Param("processed") long processed, @Param("success") long success);
+
+    /**
+     * 分片结束：写入最终计数与状态，仅租约持有者可以更新
+     */
+    @Update("UPDATE integration_job_shards SET status = #{status}, records_processed = #{processed}," +
+            " records_success = #{success}, error_message = #{errorMessage}" +
+            " WHERE id = #{id} AND lease_owner = #{owner}")
+    int finish(@Param("id") Long id, @Param("owner") String owner, @Param("status") String status,
+               @Param("processed") long processed, @Param("success") long success,
+               @Param("errorMessage") String errorMessage);
+}
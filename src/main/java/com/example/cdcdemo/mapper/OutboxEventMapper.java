@@ -0,0 +1,59 @@
+package com.example.cdcdemo.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.cdcdemo.model.OutboxEvent;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface OutboxEventMapper extends BaseMapper<OutboxEvent> {
+
+    /**
+     * 多行写入 outbox
+     */
+    @Insert("<script>" +
+            "INSERT INTO change_event_outbox (entity_type, entity_id, operation, payload) VALUES " +
+            "<foreach collection='list' item='e' separator=','>" +
+            "(#{e.entityType}, #{e.entityId}, #{e.operation}, #{e.payload})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<OutboxEvent> events);
+
+    /**
+     * 创建 relay 互斥行（已存在则忽略）
+     */
+    @Insert("INSERT IGNORE INTO change_event_outbox_relay (name) VALUES (#{name})")
+    int insertRelayIfAbsent(@Param("name") String name);
+
+    /**
+     * 在当前事务内锁定 relay 互斥行；其他节点正持有时返回 null，保证同一时刻只有一个节点发送
+     */
+    @Select("SELECT name FROM change_event_outbox_relay WHERE name = #{name} FOR UPDATE SKIP LOCKED")
+    String lockRelay(@Param("name") String name);
+
+    /**
+     * 锁定一批未发送的事件，其他节点跳过已锁定的行
+     */
+    @Select("SELECT * FROM change_event_outbox WHERE sent_at IS NULL ORDER BY id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<OutboxEvent> lockUnsent(@Param("limit") int limit);
+
+    @Update("<script>" +
+            "UPDATE change_event_outbox SET sent_at = CURRENT_TIMESTAMP(3) WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int markSent(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 分批清理已发送的历史事件
+     */
+    @Delete("DELETE FROM change_event_outbox WHERE sent_at < #{before} LIMIT #{limit}")
+    int deleteSentBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,27 @@
+package com.example.cdcdemo.model;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@TableName("cdc_binlog_checkpoint")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BinlogCheckpoint implements Serializable {
+    @TableId(value = "name", type = IdType.INPUT)
+    private String name;
+
+    private String binlogFile;
+    private Long binlogPosition;
+    private String gtidSet;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.example.cdcdemo.model;
+
+import lombok.Data;
+
+/**
+ * 批量接口的执行结果：每个 chunk 独立提交，出错时停止，已提交的 chunk 不回滚
+ */
+@Data
+public class BulkResult {
+    private long received;  // 已读取的记录数
+    private long written;   // 已提交的记录数（删除时为实际删除的行数）
+    private int chunks;     // 已提交的 chunk 数
+    private String error;   // 失败原因，成功时为空
+}
@@ -3,6 +3,7 @@ package com.example.cdcdemo.model;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
 import java.io.Serializable;
 
 @TableName("customers")
+@JsonIgnoreProperties(ignoreUnknown = true) // binlog 事件携带表中的全部列
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,4 +24,9 @@ public class Customer implements Serializable {
     private String email;
     private String phone;
     private String address;
+
+    /**
+     * 行版本号：新行为 1，每次更新加 1，随变更事件一起发布
+     */
+    private Long version;
 }
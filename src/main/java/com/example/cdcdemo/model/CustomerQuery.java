@@ -0,0 +1,15 @@
+package com.example.cdcdemo.model;
+
+import lombok.Data;
+
+/**
+ * 客户列表查询条件：afterId 为上一页最后一条的 id（keyset 分页），其余为可选过滤条件
+ */
+@Data
+public class CustomerQuery {
+    private Long afterId;
+    private Integer limit;
+    private String name;   // 前缀匹配
+    private String email;  // 精确匹配
+    private String phone;  // 精确匹配
+}
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -16,4 +17,27 @@ public class DataChangeEvent implements Serializable {
     private String operation; // CREATE, UPDATE, DELETE
     private Object data;
     private LocalDateTime timestamp;
+
+    /**
+     * 实体行的版本号（customers.version），每次写入加 1；消费端可据此丢弃过期或重复的事件，未知时为 null
+     */
+    private Long version;
+
+    /**
+     * UPDATE 前的完整行（前镜像），可通过 cdc.publisher.before-image 关闭；其他操作为 null
+     */
+    private Object before;
+
+    /**
+     * UPDATE 相对前镜像发生变化的字段名；null 表示未知（按全部字段处理），空列表表示无变化
+     */
+    private List<String> changedFields;
+
+    public DataChangeEvent(String entityType, Long entityId, String operation, Object data, LocalDateTime timestamp) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+        this.data = data;
+        this.timestamp = timestamp;
+    }
 }
\ No newline at end of file
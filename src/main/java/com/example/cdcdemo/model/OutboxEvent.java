@@ -0,0 +1,29 @@
+package com.example.cdcdemo.model;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@TableName("change_event_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent implements Serializable {
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    private String entityType;
+    private Long entityId;
+    private String operation;
+    private String payload; // JSON of the DataChangeEvent
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+}
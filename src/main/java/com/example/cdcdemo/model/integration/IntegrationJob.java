@@ -1,6 +1,8 @@
 package com.example.cdcdemo.model.integration;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.AllArgsConstructor;
@@ -35,4 +37,19 @@ public class IntegrationJob implements Serializable {
     private String errorMessage;
     private String fieldMappings; // JSON string of field mappings
     private String sourceConfig;  // JSON string of source config
+
+    // Checkpoint and lease columns are only changed through the IntegrationJobMapper statements,
+    // never by updateById with a possibly stale copy of the row
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Long checkpointOffset;
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Long checkpointSuccess;   // records written successfully up to checkpointOffset
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private String leaseOwner;
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime leaseExpiresAt;
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer attempts;
+
+    private Integer shardCount;   // more than 1: processed as rows of integration_job_shards
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.cdcdemo.model.integration;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One shard of a large integration job. Every shard reads the whole source and writes the records whose
+ * key hashes to its index, so the shards of a job can run on different nodes at the same time.
+ */
+@TableName("integration_job_shards")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntegrationJobShard implements Serializable {
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    private String integrationId;
+    private Integer shardIndex;
+    private Integer shardCount;
+    private String status;  // PENDING, PROCESSING, COMPLETED, FAILED
+    private Long checkpointOffset;
+    private Long recordsProcessed;
+    private Long recordsSuccess;
+    private String errorMessage;
+
+    // Changed only through the IntegrationJobShardMapper lease statements
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private String leaseOwner;
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime leaseExpiresAt;
+    @TableField(updateStrategy = FieldStrategy.NEVER)
+    private Integer attempts;
+}
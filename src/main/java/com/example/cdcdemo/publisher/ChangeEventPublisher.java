@@ -1,14 +1,24 @@
 package com.example.cdcdemo.publisher;
 
 
+import com.example.cdcdemo.config.PublisherProperties;
 import com.example.cdcdemo.config.RabbitMQConfig;
+import com.example.cdcdemo.mapper.OutboxEventMapper;
 import com.example.cdcdemo.model.DataChangeEvent;
+import com.example.cdcdemo.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -16,21 +26,167 @@ import java.time.LocalDateTime;
 public class ChangeEventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
+    private final ConfirmingBatchPublisher batchPublisher;
+    private final PublisherProperties publisherProperties;
+    private final OutboxEventMapper outboxEventMapper;
+    private final ObjectMapper objectMapper;
+    private final ChangeEventRouter router;
 
     public void publishEvent(String entityType, Long entityId, String operation, Object data) {
-        DataChangeEvent event = new DataChangeEvent(
+        publishEvent(new DataChangeEvent(
                 entityType,
                 entityId,
                 operation,
                 data,
                 LocalDateTime.now()
-        );
+        ));
+    }
+
+    /**
+     * 发布已构造好的事件（带版本号、前镜像、变化字段等）
+     */
+    public void publishEvent(DataChangeEvent event) {
+        if (publisherProperties.getMode() == PublisherProperties.Mode.BINLOG) {
+            // 变更由 binlog 捕获，写请求路径上不再发布
+            return;
+        }
+        applyOptions(event);
+
+        if (publisherProperties.getMode() == PublisherProperties.Mode.BATCHED) {
+            publishBatched(event);
+            return;
+        }
+        if (publisherProperties.getMode() == PublisherProperties.Mode.OUTBOX) {
+            publishToOutbox(event);
+            return;
+        }
 
         log.info("Publishing data change event: {}", event);
         rabbitTemplate.convertAndSend(
                 RabbitMQConfig.EXCHANGE_NAME,
-                RabbitMQConfig.ROUTING_KEY,
+                router.routingKey(event),
                 event
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * 一次提交一组事件（如批量接口的一个 chunk）：batched / outbox 模式下整组进入发送缓冲区或一次多行写入 outbox，
+     * direct 模式下仍逐条发送。事件按实体 id 路由到各自分区，不会合并成一条消息，以保持同一实体的顺序
+     */
+    public void publishEvents(List<DataChangeEvent> events) {
+        if (events.isEmpty() || publisherProperties.getMode() == PublisherProperties.Mode.BINLOG) {
+            return;
+        }
+        for (DataChangeEvent event : events) {
+            applyOptions(event);
+        }
+
+        if (publisherProperties.getMode() == PublisherProperties.Mode.DIRECT) {
+            log.info("Publishing {} data change events", events.size());
+            for (DataChangeEvent event : events) {
+                rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, router.routingKey(event), event);
+            }
+            return;
+        }
+
+        log.debug("Queueing {} data change events", events.size());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            stagedEvents().addAll(events);
+        } else if (publisherProperties.getMode() == PublisherProperties.Mode.BATCHED) {
+            batchPublisher.publish(router::routingKey, events);
+        } else {
+            writeOutbox(events);
+        }
+    }
+
+    private void applyOptions(DataChangeEvent event) {
+        if (!publisherProperties.isBeforeImage()) {
+            event.setBefore(null);
+        }
+    }
+
+    /**
+     * 批量模式：事务内产生的事件先挂在当前事务上，提交后才进入发送缓冲区；回滚则丢弃
+     */
+    private void publishBatched(DataChangeEvent event) {
+        log.debug("Queueing data change event: {}", event);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            batchPublisher.publish(router.routingKey(event), event);
+            return;
+        }
+        stagedEvents().add(event);
+    }
+
+    /**
+     * outbox 模式：事务内的事件在提交前一次性写入 outbox 表，与业务数据同时提交或回滚，由 OutboxRelay 发送
+     */
+    private void publishToOutbox(DataChangeEvent event) {
+        log.debug("Staging data change event in outbox: {}", event);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeOutbox(Collections.singletonList(event));
+            return;
+        }
+        stagedEvents().add(event);
+    }
+
+    /**
+     * 当前事务暂存的事件列表，首次调用时绑定到事务上
+     */
+    private List<DataChangeEvent> stagedEvents() {
+        @SuppressWarnings("unchecked")
+        List<DataChangeEvent> staged = (List<DataChangeEvent>) TransactionSynchronizationManager.getResource(this);
+        if (staged != null) {
+            return staged;
+        }
+
+        List<DataChangeEvent> events = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, events);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (publisherProperties.getMode() == PublisherProperties.Mode.OUTBOX) {
+                    writeOutbox(events);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                if (publisherProperties.getMode() != PublisherProperties.Mode.BATCHED) {
+                    return;
+                }
+                batchPublisher.publish(router::routingKey, events);
+                PublisherProperties.Batch batch = publisherProperties.getBatch();
+                // 开启合并时不在提交时 flush，否则合并窗口只有单个事务，跨事务的事件永远不会合并
+                if (batch.isFlushOnCommit() && !batch.isCoalesce()) {
+                    batchPublisher.flush();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeEventPublisher.this);
+            }
+        });
+        return events;
+    }
+
+    private void writeOutbox(List<DataChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> rows = new ArrayList<>(events.size());
+        for (DataChangeEvent event : events) {
+            try {
+                rows.add(OutboxEvent.builder()
+                        .entityType(event.getEntityType())
+                        .entityId(event.getEntityId())
+                        .operation(event.getOperation())
+                        .payload(objectMapper.writeValueAsString(event))
+                        .build());
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Failed to serialize data change event: " + e.getMessage(), e);
+            }
+        }
+        outboxEventMapper.insertBatch(rows);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cdcdemo.publisher;
+
+import com.example.cdcdemo.config.RabbitMQConfig;
+import com.example.cdcdemo.config.RoutingProperties;
+import com.example.cdcdemo.model.DataChangeEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps change events to partition routing keys.
+ * <p>
+ * The partition is a hash of {@code entityType:entityId}, so every event for one entity lands on the
+ * same partition queue and is consumed in publish order. The hash only depends on the two values,
+ * so all publisher instances agree on it.
+ */
+@Component
+public class ChangeEventRouter {
+
+    private final int partitions;
+
+    public ChangeEventRouter(RoutingProperties routingProperties) {
+        if (routingProperties.getPartitions() < 1) {
+            throw new IllegalArgumentException("cdc.routing.partitions must be at least 1");
+        }
+        this.partitions = routingProperties.getPartitions();
+    }
+
+    public String routingKey(DataChangeEvent event) {
+        return routingKey(event.getEntityType(), event.getEntityId());
+    }
+
+    public String routingKey(String entityType, Long entityId) {
+        return RabbitMQConfig.partitionRoutingKey(partition(entityType, entityId));
+    }
+
+    public int partition(String entityType, Long entityId) {
+        int hash = (entityType + ':' + entityId).hashCode();
+        // Spread the low bits; sequential ids otherwise map to neighbouring partitions in runs
+        hash = (hash ^ (hash >>> 16)) * 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, partitions);
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+}
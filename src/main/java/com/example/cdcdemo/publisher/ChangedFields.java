@@ -0,0 +1,57 @@
+package com.example.cdcdemo.publisher;
+
+import com.example.cdcdemo.model.Customer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Names of the fields that differ between the before and after image of an update, for
+ * {@link com.example.cdcdemo.model.DataChangeEvent#getChangedFields()}. The id and row version are
+ * bookkeeping and never count as changes.
+ */
+public final class ChangedFields {
+
+    private ChangedFields() {
+    }
+
+    public static List<String> of(Customer before, Customer after) {
+        List<String> changed = new ArrayList<>(4);
+        if (!Objects.equals(before.getName(), after.getName())) {
+            changed.add("name");
+        }
+        if (!Objects.equals(before.getEmail(), after.getEmail())) {
+            changed.add("email");
+        }
+        if (!Objects.equals(before.getPhone(), after.getPhone())) {
+            changed.add("phone");
+        }
+        if (!Objects.equals(before.getAddress(), after.getAddress())) {
+            changed.add("address");
+        }
+        return changed.isEmpty() ? Collections.<String>emptyList() : changed;
+    }
+
+    /**
+     * Column maps, as produced by binlog capture. A key present on only one side counts as changed.
+     */
+    public static List<String> of(Map<String, ?> before, Map<String, ?> after) {
+        Set<String> keys = new LinkedHashSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        List<String> changed = new ArrayList<>();
+        for (String key : keys) {
+            if ("id".equals(key) || "version".equals(key)) {
+                continue;
+            }
+            if (before.containsKey(key) != after.containsKey(key) || !Objects.equals(before.get(key), after.get(key))) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+}
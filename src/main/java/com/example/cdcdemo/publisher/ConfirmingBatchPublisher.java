@@ -0,0 +1,451 @@
+package com.example.cdcdemo.publisher;
+
+import com.example.cdcdemo.config.PublisherProperties;
+import com.example.cdcdemo.model.DataChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.batch.MessageBatch;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Buffers change events per routing key and publishes them in batches with asynchronous
+ * publisher confirms.
+ * <p>
+ * A buffer is sent when it reaches the batch size or when the flush interval elapses. Each batch
+ * goes out as one AMQP message in Spring AMQP's batch format, which listener containers split back
+ * into single messages, so consumers are unaffected. Every batch carries its own correlation id;
+ * at most {@code maxInFlight} batches may be accepted but unconfirmed at once, and the threads that
+ * fill more batches block beyond that (on the window only, never while holding the buffers' lock).
+ * <p>
+ * Batches for one routing key form a lane and go out one at a time: the next is sent once the
+ * previous one is confirmed or finally dropped. Nacked or timed-out batches are resent up to
+ * {@code maxRetries} times, and since they keep their place in the lane, a retry always reaches the
+ * broker before the later batches for that routing key.
+ * <p>
+ * With {@code coalesce} on, an event for an entity that already has an event in the buffer is folded
+ * into it: CREATE+UPDATE becomes one CREATE, UPDATE+UPDATE one UPDATE, UPDATE+DELETE the DELETE, and
+ * CREATE+DELETE cancels out. The combined event keeps the earlier event's place in the buffer, and
+ * every folded event's future completes with it. Other pairs (such as DELETE then CREATE) are kept
+ * as they are.
+ */
+@Slf4j
+public class ConfirmingBatchPublisher implements AutoCloseable {
+
+    private final MessageSender sender;
+    private final MessageConverter messageConverter;
+    private final String exchange;
+    private final PublisherProperties.Batch config;
+
+    private final Map<String, Buffer> buffers = new LinkedHashMap<>();
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private final Semaphore inFlight;
+    private final ScheduledExecutorService flushScheduler;
+    private final ScheduledExecutorService timeoutScheduler;
+
+    private final Counter eventsQueued;
+    private final Counter eventsCoalesced;
+    private final Counter eventsPublished;
+    private final Counter eventsFailed;
+    private final Counter batchesSent;
+    private final Counter batchesNacked;
+    private final Counter batchesRetried;
+
+    public ConfirmingBatchPublisher(MessageSender sender, MessageConverter messageConverter, String exchange,
+                                    PublisherProperties.Batch config, MeterRegistry meterRegistry) {
+        this.sender = sender;
+        this.messageConverter = messageConverter;
+        this.exchange = exchange;
+        this.config = config;
+        this.inFlight = new Semaphore(config.getMaxInFlight());
+
+        this.eventsQueued = meterRegistry.counter("cdc.publisher.events.queued");
+        this.eventsCoalesced = meterRegistry.counter("cdc.publisher.events.coalesced");
+        this.eventsPublished = meterRegistry.counter("cdc.publisher.events.published");
+        this.eventsFailed = meterRegistry.counter("cdc.publisher.events.failed");
+        this.batchesSent = meterRegistry.counter("cdc.publisher.batches.sent");
+        this.batchesNacked = meterRegistry.counter("cdc.publisher.batches.nacked");
+        this.batchesRetried = meterRegistry.counter("cdc.publisher.batches.retried");
+        Gauge.builder("cdc.publisher.batches.inflight", inFlight,
+                        s -> config.getMaxInFlight() - s.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("cdc.publisher.events.coalesce.ratio", this,
+                        p -> p.eventsQueued.count() == 0 ? 0 : p.eventsCoalesced.count() / p.eventsQueued.count())
+                .description("Share of queued change events folded into another event instead of being sent")
+                .register(meterRegistry);
+
+        // Flushes and retries may block on the in-flight window; timeouts must not, so they get their own thread
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "cdc-publisher-flush"));
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "cdc-publisher-confirm-timeout"));
+        long interval = config.getFlushInterval().toMillis();
+        flushScheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue one event. The returned future completes once the broker has confirmed the batch
+     * holding the event, or fails when all retries are exhausted.
+     */
+    public CompletableFuture<Void> publish(String routingKey, DataChangeEvent event) {
+        return publish(routingKey, Collections.singletonList(event));
+    }
+
+    /**
+     * Queue several events for the same routing key, keeping their order.
+     */
+    public CompletableFuture<Void> publish(String routingKey, List<DataChangeEvent> events) {
+        return publish(event -> routingKey, events);
+    }
+
+    /**
+     * Queue events whose routing key is chosen per event. Events that share a routing key keep
+     * their relative order.
+     */
+    public CompletableFuture<Void> publish(Function<DataChangeEvent, String> routingKeys, List<DataChangeEvent> events) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(events.size());
+        List<Batch> ready = new ArrayList<>();
+        synchronized (this) {
+            for (DataChangeEvent event : events) {
+                String routingKey = routingKeys.apply(event);
+                Buffer buffer = buffers.computeIfAbsent(routingKey, k -> new Buffer());
+                eventsQueued.increment();
+                String entity = config.isCoalesce() && event.getEntityId() != null
+                        ? event.getEntityType() + ':' + event.getEntityId() : null;
+                PendingEvent earlier = entity != null ? buffer.byEntity.get(entity) : null;
+                if (earlier != null && coalesce(buffer, entity, earlier, event)) {
+                    futures.add(earlier.done);
+                    continue;
+                }
+                PendingEvent pending = new PendingEvent(event);
+                futures.add(pending.done);
+                buffer.events.add(pending);
+                if (entity != null) {
+                    buffer.byEntity.put(entity, pending);
+                }
+                if (buffer.events.size() >= config.getSize()) {
+                    ready.add(enqueue(routingKey, drain(routingKey)));
+                }
+            }
+        }
+        admit(ready);
+        return futures.size() == 1 ? futures.get(0) : CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Send everything that is buffered now.
+     */
+    public void flush() {
+        List<Batch> ready = new ArrayList<>();
+        synchronized (this) {
+            for (String routingKey : new ArrayList<>(buffers.keySet())) {
+                List<PendingEvent> batch = drain(routingKey);
+                if (!batch.isEmpty()) {
+                    ready.add(enqueue(routingKey, batch));
+                }
+            }
+        }
+        admit(ready);
+    }
+
+    /**
+     * Batches accepted into the window but not yet confirmed.
+     */
+    public int getInFlight() {
+        return config.getMaxInFlight() - inFlight.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        flushScheduler.shutdown();
+        flushQuietly();
+        try {
+            // Wait for outstanding confirms before the connection goes away
+            if (inFlight.tryAcquire(config.getMaxInFlight(), config.getConfirmTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                inFlight.release(config.getMaxInFlight());
+            } else {
+                log.warn("Closing with {} unconfirmed change-event batches", getInFlight());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timeoutScheduler.shutdownNow();
+    }
+
+    private List<PendingEvent> drain(String routingKey) {
+        Buffer buffer = buffers.remove(routingKey);
+        return buffer != null ? buffer.events : Collections.<PendingEvent>emptyList();
+    }
+
+    /**
+     * Fold {@code later} into the buffered event for the same entity.
+     *
+     * @return {@code false} if the two cannot be combined and both must be sent
+     */
+    private boolean coalesce(Buffer buffer, String entity, PendingEvent earlier, DataChangeEvent later) {
+        String first = earlier.event.getOperation();
+        String second = later.getOperation();
+        if ("CREATE".equals(first) && "DELETE".equals(second)) {
+            // Created and deleted within the window: neither needs to go out
+            buffer.events.remove(earlier);
+            buffer.byEntity.remove(entity);
+            earlier.done.complete(null);
+            eventsCoalesced.increment(2);
+            return true;
+        }
+        if ("UPDATE".equals(first) && "DELETE".equals(second)) {
+            earlier.event = later;
+        } else if (("CREATE".equals(first) || "UPDATE".equals(first)) && "UPDATE".equals(second)) {
+            earlier.event = merge(earlier.event, later);
+        } else {
+            return false;
+        }
+        eventsCoalesced.increment();
+        return true;
+    }
+
+    /**
+     * An update applied on top of an earlier create or update: the later state, with the earlier
+     * before image and the fields changed by either.
+     */
+    private static DataChangeEvent merge(DataChangeEvent earlier, DataChangeEvent later) {
+        DataChangeEvent merged = new DataChangeEvent(later.getEntityType(), later.getEntityId(),
+                earlier.getOperation(), later.getData(), later.getTimestamp());
+        merged.setVersion(later.getVersion());
+        if ("UPDATE".equals(earlier.getOperation())) {
+            merged.setBefore(earlier.getBefore());
+            if (earlier.getChangedFields() != null && later.getChangedFields() != null) {
+                Set<String> changed = new LinkedHashSet<>(earlier.getChangedFields());
+                changed.addAll(later.getChangedFields());
+                merged.setChangedFields(new ArrayList<>(changed));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Put a drained batch at the end of its routing key's lane. Caller holds the monitor.
+     */
+    private Batch enqueue(String routingKey, List<PendingEvent> events) {
+        Batch batch = new Batch(routingKey, events);
+        lanes.computeIfAbsent(routingKey, k -> new Lane()).waiting.addLast(batch);
+        return batch;
+    }
+
+    /**
+     * Take a window permit for each batch the caller queued, blocking while the window is full,
+     * and let the lanes send. Must be called without holding the monitor.
+     */
+    private void admit(List<Batch> ready) {
+        for (Batch batch : ready) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (withdraw(batch)) {
+                    fail(batch.events, new IllegalStateException("Interrupted while waiting for the publish window"));
+                    continue;
+                }
+                // Already sent on a permit taken by another thread; that thread's batch still needs this one
+                inFlight.acquireUninterruptibly();
+            }
+            synchronized (this) {
+                lanes.get(batch.routingKey).permits++;
+            }
+            pump(batch.routingKey);
+        }
+    }
+
+    private synchronized boolean withdraw(Batch batch) {
+        Lane lane = lanes.get(batch.routingKey);
+        if (lane == null || !lane.waiting.remove(batch)) {
+            return false;
+        }
+        removeIfIdle(batch.routingKey, lane);
+        return true;
+    }
+
+    /**
+     * Send the head of a lane if the lane is idle and holds a permit for it.
+     */
+    private void pump(String routingKey) {
+        Batch next;
+        synchronized (this) {
+            Lane lane = lanes.get(routingKey);
+            if (lane == null || lane.sending || lane.permits == 0 || lane.waiting.isEmpty()) {
+                return;
+            }
+            next = lane.waiting.pollFirst();
+            lane.permits--;
+            lane.sending = true;
+        }
+        send(next);
+    }
+
+    private void send(Batch batch) {
+        CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+        correlation.getFuture().addCallback(
+                confirm -> onConfirm(batch, confirm.isAck(), confirm.getReason()),
+                ex -> onConfirm(batch, false, ex.getMessage()));
+        timeoutScheduler.schedule(
+                () -> correlation.getFuture().set(new CorrelationData.Confirm(false, "confirm timeout")),
+                config.getConfirmTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+        try {
+            sender.send(exchange, batch.routingKey, toMessage(batch.events), correlation);
+            batchesSent.increment();
+            log.debug("Sent batch {} of {} change events to {}", correlation.getId(), batch.events.size(), batch.routingKey);
+        } catch (RuntimeException e) {
+            correlation.getFuture().set(new CorrelationData.Confirm(false, e.getMessage()));
+        }
+    }
+
+    private void onConfirm(Batch batch, boolean ack, String reason) {
+        if (ack) {
+            finish(batch);
+            eventsPublished.increment(batch.events.size());
+            for (PendingEvent pending : batch.events) {
+                pending.done.complete(null);
+            }
+            return;
+        }
+
+        batchesNacked.increment();
+        if (batch.attempt < config.getMaxRetries()) {
+            log.warn("Change-event batch of {} to {} not confirmed ({}), retry {}/{}",
+                    batch.events.size(), batch.routingKey, reason, batch.attempt + 1, config.getMaxRetries());
+            batchesRetried.increment();
+            long backoff = 100L << batch.attempt;
+            batch.attempt++;
+            try {
+                // The lane stays busy, so later batches for this routing key wait behind the retry
+                flushScheduler.schedule(() -> send(batch), backoff, TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                reason = "publisher closed";
+            }
+        } else {
+            log.error("Dropping change-event batch of {} to {} after {} retries: {}",
+                    batch.events.size(), batch.routingKey, batch.attempt, reason);
+        }
+        finish(batch);
+        fail(batch.events, new IllegalStateException("Change-event batch not confirmed: " + reason));
+    }
+
+    /**
+     * The batch is confirmed or dropped: free its permit and move its lane on. The next send is
+     * handed to the flush thread rather than made from the broker's confirm callback.
+     */
+    private void finish(Batch batch) {
+        synchronized (this) {
+            Lane lane = lanes.get(batch.routingKey);
+            lane.sending = false;
+            removeIfIdle(batch.routingKey, lane);
+        }
+        // Only after the lane is idle, so a sender woken by this permit can send right away
+        inFlight.release();
+        try {
+            flushScheduler.execute(() -> pump(batch.routingKey));
+        } catch (RejectedExecutionException e) {
+            // Closing: close() sends what is left on its own thread
+            pump(batch.routingKey);
+        }
+    }
+
+    private void removeIfIdle(String routingKey, Lane lane) {
+        if (!lane.sending && lane.waiting.isEmpty()) {
+            lanes.remove(routingKey);
+        }
+    }
+
+    private void fail(List<PendingEvent> batch, Exception cause) {
+        eventsFailed.increment(batch.size());
+        for (PendingEvent pending : batch) {
+            pending.done.completeExceptionally(cause);
+        }
+    }
+
+    private Message toMessage(List<PendingEvent> batch) {
+        SimpleBatchingStrategy strategy = new SimpleBatchingStrategy(batch.size(), Integer.MAX_VALUE, Long.MAX_VALUE);
+        MessageBatch assembled = null;
+        for (PendingEvent pending : batch) {
+            Message message = messageConverter.toMessage(pending.event, new MessageProperties());
+            assembled = strategy.addToBatch(exchange, "", message);
+        }
+        if (assembled == null) {
+            Collection<MessageBatch> released = strategy.releaseBatches();
+            assembled = released.iterator().next();
+        }
+        return assembled.getMessage();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Error flushing change-event batches", e);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class Buffer {
+        private final List<PendingEvent> events = new ArrayList<>();
+        // Latest buffered event per entity; only filled when coalescing
+        private final Map<String, PendingEvent> byEntity = new HashMap<>();
+    }
+
+    private static final class Lane {
+        private final Deque<Batch> waiting = new ArrayDeque<>();
+        // Window permits taken for batches still waiting in this lane
+        private int permits;
+        private boolean sending;
+    }
+
+    private static final class Batch {
+        private final String routingKey;
+        private final List<PendingEvent> events;
+        private int attempt;
+
+        private Batch(String routingKey, List<PendingEvent> events) {
+            this.routingKey = routingKey;
+            this.events = events;
+        }
+    }
+
+    private static final class PendingEvent {
+        private DataChangeEvent event;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private PendingEvent(DataChangeEvent event) {
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.cdcdemo.publisher;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+/**
+ * Sends a raw AMQP message whose publisher confirm is reported through the correlation data's future.
+ * In production this is {@code RabbitTemplate::send}; tests plug in an in-process stand-in.
+ */
+@FunctionalInterface
+public interface MessageSender {
+
+    void send(String exchange, String routingKey, Message message, CorrelationData correlationData);
+}
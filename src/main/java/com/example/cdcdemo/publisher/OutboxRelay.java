@@ -0,0 +1,178 @@
+package com.example.cdcdemo.publisher;
+
+import com.example.cdcdemo.config.PublisherProperties;
+import com.example.cdcdemo.mapper.OutboxEventMapper;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.example.cdcdemo.model.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves change events from the outbox table to RabbitMQ.
+ * <p>
+ * Each pass locks up to {@code batchSize} unsent rows with {@code FOR UPDATE SKIP LOCKED}, hands them to
+ * the {@link ConfirmingBatchPublisher}, waits for the broker confirms and marks the rows sent in the same
+ * transaction. If publishing fails or times out the transaction rolls back and the rows are picked up
+ * again on the next pass, so delivery is at-least-once.
+ * <p>
+ * Only one instance relays at a time: every batch transaction first locks the relay row in
+ * {@code change_event_outbox_relay} with {@code SKIP LOCKED}, and instances that don't get it skip the
+ * pass. A later batch is therefore never sent while an earlier one is still waiting for its confirms,
+ * which keeps the events of an entity in order across nodes. Relaying waits on the broker, so it runs
+ * on its own thread rather than on the shared {@code @Scheduled} thread that also renews job leases.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cdc.publisher", name = "mode", havingValue = "outbox")
+@Slf4j
+public class OutboxRelay implements AutoCloseable {
+
+    private static final int CLEANUP_BATCH = 1000;
+    private static final String RELAY_NAME = "default";
+
+    private final OutboxEventMapper outboxEventMapper;
+    private final ConfirmingBatchPublisher batchPublisher;
+    private final ObjectMapper objectMapper;
+    private final PublisherProperties publisherProperties;
+    private final ChangeEventRouter router;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean relayRowCreated;
+
+    private final Counter eventsRelayed;
+    private final Counter relayFailures;
+
+    public OutboxRelay(OutboxEventMapper outboxEventMapper, ConfirmingBatchPublisher batchPublisher,
+                       ObjectMapper objectMapper, PublisherProperties publisherProperties, ChangeEventRouter router,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.outboxEventMapper = outboxEventMapper;
+        this.batchPublisher = batchPublisher;
+        this.objectMapper = objectMapper;
+        this.publisherProperties = publisherProperties;
+        this.router = router;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventsRelayed = meterRegistry.counter("cdc.outbox.events.relayed");
+        this.relayFailures = meterRegistry.counter("cdc.outbox.relay.failures");
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cdc-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = publisherProperties.getOutbox().getPollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::relay, interval, interval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purgeSent, 60_000L, 60_000L, TimeUnit.MILLISECONDS);
+    }
+
+    public void relay() {
+        PublisherProperties.Outbox config = publisherProperties.getOutbox();
+        try {
+            if (!relayRowCreated) {
+                // Once, outside the relay transactions, so the duplicate-key check never holds a lock on the relay row
+                outboxEventMapper.insertRelayIfAbsent(RELAY_NAME);
+                relayRowCreated = true;
+            }
+            for (int i = 0; i < config.getMaxBatchesPerPoll(); i++) {
+                Integer relayed = transactionTemplate.execute(status -> relayBatch(config.getBatchSize()));
+                if (relayed == null || relayed < config.getBatchSize()) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            relayFailures.increment();
+            log.error("Outbox relay pass failed, unsent events will be retried: {}", e.getMessage());
+        }
+    }
+
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minus(publisherProperties.getOutbox().getRetention());
+        try {
+            int deleted;
+            int total = 0;
+            do {
+                deleted = outboxEventMapper.deleteSentBefore(before, CLEANUP_BATCH);
+                total += deleted;
+            } while (deleted == CLEANUP_BATCH);
+            if (total > 0) {
+                log.debug("Purged {} relayed outbox events sent before {}", total, before);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publish one locked batch and mark it sent. Runs inside the relay transaction.
+     *
+     * @return number of rows relayed
+     */
+    private int relayBatch(int batchSize) {
+        if (outboxEventMapper.lockRelay(RELAY_NAME) == null) {
+            // Another instance is relaying; its batch must be confirmed before later rows go out
+            return 0;
+        }
+        List<OutboxEvent> rows = outboxEventMapper.lockUnsent(batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<DataChangeEvent> events = new ArrayList<>(rows.size());
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (OutboxEvent row : rows) {
+            try {
+                events.add(objectMapper.readValue(row.getPayload(), DataChangeEvent.class));
+            } catch (IOException e) {
+                // An unreadable row would block the outbox forever; drop it and keep going
+                log.error("Skipping unreadable outbox event {}: {}", row.getId(), e.getMessage());
+            }
+            ids.add(row.getId());
+        }
+
+        if (!events.isEmpty()) {
+            awaitConfirms(batchPublisher.publish(router::routingKey, events));
+        }
+        outboxEventMapper.markSent(ids);
+        eventsRelayed.increment(events.size());
+        log.debug("Relayed {} outbox events ({} .. {})", events.size(), ids.get(0), ids.get(ids.size() - 1));
+        return rows.size();
+    }
+
+    private void awaitConfirms(CompletableFuture<Void> confirmed) {
+        batchPublisher.flush();
+        PublisherProperties.Batch batch = publisherProperties.getBatch();
+        // Leave room for every retry the publisher may still make
+        long timeout = batch.getConfirmTimeout().toMillis() * (batch.getMaxRetries() + 1);
+        try {
+            confirmed.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for outbox publish confirms", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Outbox events not confirmed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for outbox publish confirms", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
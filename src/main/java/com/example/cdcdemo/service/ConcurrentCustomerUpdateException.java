@@ -0,0 +1,12 @@
+package com.example.cdcdemo.service;
+
+/**
+ * Thrown when a customer changed between reading it and the version-conditioned update, so the
+ * update would have overwritten a row it never saw. The client should read the customer again and retry.
+ */
+public class ConcurrentCustomerUpdateException extends RuntimeException {
+
+    public ConcurrentCustomerUpdateException(Long id) {
+        super("Customer was modified concurrently, id: " + id);
+    }
+}
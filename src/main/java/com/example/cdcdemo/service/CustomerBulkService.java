@@ -0,0 +1,83 @@
+package com.example.cdcdemo.service;
+
+import com.example.cdcdemo.config.IntegrationProperties;
+import com.example.cdcdemo.model.BulkResult;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.service.integration.CustomerBatchWriter;
+import com.example.cdcdemo.service.integration.IntegrationStrategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bulk create, upsert and delete of customers.
+ * <p>
+ * Records are pulled from the iterator one chunk at a time, so a streamed request body is never held
+ * in memory as a whole. Each chunk is written by {@link CustomerBatchWriter} in its own transaction
+ * with multi-row SQL, one pipelined cache eviction and one hand-off of its change events. The first
+ * failing chunk stops the run; chunks committed before it stay committed and are reported in the result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerBulkService {
+
+    private final CustomerBatchWriter customerBatchWriter;
+    private final IntegrationProperties integrationProperties;
+
+    /**
+     * Insert every record as a new customer; ids in the input are ignored.
+     */
+    public BulkResult create(Iterator<Customer> customers) {
+        return run("create", customers, chunk -> customerBatchWriter.writeChunk(chunk, IntegrationStrategy.APPEND));
+    }
+
+    /**
+     * Overwrite customers by id, creating the ones that don't exist; records without an id are inserted.
+     */
+    public BulkResult upsert(Iterator<Customer> customers) {
+        return run("upsert", customers, chunk -> customerBatchWriter.writeChunk(chunk, IntegrationStrategy.REPLACE));
+    }
+
+    /**
+     * Delete customers by id; unknown ids are skipped.
+     */
+    public BulkResult delete(Iterator<Long> ids) {
+        return run("delete", ids, customerBatchWriter::deleteChunk);
+    }
+
+    private <T> BulkResult run(String operation, Iterator<T> records, ToIntFunction<List<T>> writer) {
+        int chunkSize = integrationProperties.getChunkSize();
+        BulkResult result = new BulkResult();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        try {
+            while (records.hasNext()) {
+                chunk.add(records.next());
+                result.setReceived(result.getReceived() + 1);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, writer, result);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, writer, result);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Bulk {} stopped after {} committed chunks: {}", operation, result.getChunks(), e.getMessage());
+            result.setError(e.getMessage());
+        }
+        log.info("Bulk {}: {} received, {} written in {} chunks", operation,
+                result.getReceived(), result.getWritten(), result.getChunks());
+        return result;
+    }
+
+    private <T> void writeChunk(List<T> chunk, ToIntFunction<List<T>> writer, BulkResult result) {
+        result.setWritten(result.getWritten() + writer.applyAsInt(chunk));
+        result.setChunks(result.getChunks() + 1);
+        chunk.clear();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.cdcdemo.service;
+
+/**
+ * Thrown when the customer to update or delete does not exist.
+ */
+public class CustomerNotFoundException extends RuntimeException {
+
+    public CustomerNotFoundException(Long id) {
+        super("Customer not found with id: " + id);
+    }
+}
@@ -1,23 +1,32 @@
 package com.example.cdcdemo.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 
+import com.example.cdcdemo.cache.CustomerCache;
 import com.example.cdcdemo.mapper.CustomerMapper;
 import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.CustomerQuery;
+import com.example.cdcdemo.model.DataChangeEvent;
 import com.example.cdcdemo.publisher.ChangeEventPublisher;
+import com.example.cdcdemo.publisher.ChangedFields;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -26,18 +35,49 @@ public class CustomerService extends ServiceImpl<CustomerMapper, Customer> {
 
     private final CustomerMapper customerMapper;
     private final ChangeEventPublisher eventPublisher;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final CustomerCache customerCache;
 
-    private static final String CACHE_KEY_CUSTOMER = "customer:";
-    private static final String CACHE_KEY_ALL_CUSTOMERS = "allCustomers";
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
 
-    @Cacheable(cacheNames = "customers", key = "'all'")
-    public List<Customer> getAllCustomers() {
-        log.info("Fetching all customers from database");
-        return customerMapper.selectList(null);
+    /**
+     * 按 id 游标分页（keyset）：WHERE id > afterId ORDER BY id LIMIT n，不做 COUNT，不缓存
+     */
+    public List<Customer> listCustomers(CustomerQuery query) {
+        Page<Customer> page = new Page<>(1, pageSize(query), false);
+        return customerMapper.selectPage(page, filter(query)).getRecords();
     }
 
-    @Cacheable(cacheNames = "customers", key = "#id")
+    /**
+     * 实际生效的每页条数：默认 {@value #DEFAULT_PAGE_SIZE}，最多 {@value #MAX_PAGE_SIZE}
+     */
+    public static int pageSize(CustomerQuery query) {
+        return query.getLimit() == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(query.getLimit(), MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 按 id 顺序流式读取所有匹配的客户，内存占用与结果大小无关
+     */
+    @Transactional(readOnly = true)
+    public void exportCustomers(CustomerQuery query, Consumer<Customer> consumer) {
+        try (Cursor<Customer> cursor = customerMapper.streamByWrapper(filter(query))) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LambdaQueryWrapper<Customer> filter(CustomerQuery query) {
+        return Wrappers.<Customer>lambdaQuery()
+                .gt(query.getAfterId() != null, Customer::getId, query.getAfterId())
+                .likeRight(StringUtils.hasText(query.getName()), Customer::getName, query.getName())
+                .eq(StringUtils.hasText(query.getEmail()), Customer::getEmail, query.getEmail())
+                .eq(StringUtils.hasText(query.getPhone()), Customer::getPhone, query.getPhone())
+                .orderByAsc(Customer::getId);
+    }
+
+    // customers::<id> 存 Customer；sync = true 时同一 key 的并发未命中只查一次数据库
+    @Cacheable(cacheNames = CustomerCache.NAME, key = "#id", sync = true)
     public Optional<Customer> getCustomerById(Long id) {
         log.info("Fetching customer with id: {} from database", id);
         Customer customer = customerMapper.selectById(id);
@@ -45,71 +85,63 @@ public class CustomerService extends ServiceImpl<CustomerMapper, Customer> {
     }
 
     @Transactional
-    @CacheEvict(cacheNames = "customers", key = "'all'")
     public Customer createCustomer(Customer customer) {
         log.info("Creating new customer");
+        customer.setVersion(1L);
         customerMapper.insert(customer);
 
-        // 保存到 Redis 缓存
-        redisTemplate.opsForValue().set(
-                CACHE_KEY_CUSTOMER + customer.getId(),
-                customer,
-                30,
-                TimeUnit.MINUTES
-        );
-
-        // 清除列表缓存
-        redisTemplate.delete(CACHE_KEY_ALL_CUSTOMERS);
-
         // 发布创建事件
-        eventPublisher.publishEvent(
-                "customer",
-                customer.getId(),
-                "CREATE",
-                customer
-        );
+        DataChangeEvent event = new DataChangeEvent("customer", customer.getId(), "CREATE", customer, LocalDateTime.now());
+        event.setVersion(customer.getVersion());
+        eventPublisher.publishEvent(event);
 
         return customer;
     }
 
     @Transactional
-    @CachePut(cacheNames = "customers", key = "#id")
-    @CacheEvict(cacheNames = "customers", key = "'all'")
     public Customer updateCustomer(Long id, Customer customer) {
         log.info("Updating customer with id: {}", id);
         Customer existingCustomer = customerMapper.selectById(id);
 
         if (existingCustomer != null) {
-            customer.setId(id);
-            customerMapper.updateById(customer);
-
-            // 更新 Redis 缓存
-            redisTemplate.opsForValue().set(
-                    CACHE_KEY_CUSTOMER + customer.getId(),
-                    customer,
-                    30,
-                    TimeUnit.MINUTES
-            );
-
-            // 清除列表缓存
-            redisTemplate.delete(CACHE_KEY_ALL_CUSTOMERS);
-
-            // 发布更新事件
-            eventPublisher.publishEvent(
-                    "customer",
-                    customer.getId(),
-                    "UPDATE",
-                    customer
-            );
-
-            return customer;
+            // 请求中为 null 的字段不更新，按同样规则得到更新后的整行，与读到的行比较出变化的字段
+            Customer updated = new Customer(id,
+                    customer.getName() != null ? customer.getName() : existingCustomer.getName(),
+                    customer.getEmail() != null ? customer.getEmail() : existingCustomer.getEmail(),
+                    customer.getPhone() != null ? customer.getPhone() : existingCustomer.getPhone(),
+                    customer.getAddress() != null ? customer.getAddress() : existingCustomer.getAddress(),
+                    existingCustomer.getVersion() + 1);
+            List<String> changedFields = ChangedFields.of(existingCustomer, updated);
+            if (changedFields.isEmpty()) {
+                // 没有变化：不写库，也不发布事件
+                return existingCustomer;
+            }
+
+            // 版本号条件保证前镜像就是被这次更新覆盖的行
+            int rows = customerMapper.update(updated, Wrappers.<Customer>lambdaUpdate()
+                    .eq(Customer::getId, id)
+                    .eq(Customer::getVersion, existingCustomer.getVersion()));
+            if (rows == 0) {
+                throw new ConcurrentCustomerUpdateException(id);
+            }
+
+            // 提交后清除该客户的缓存，下次读取时加载已提交的数据
+            customerCache.evictAfterCommit(Collections.singletonList(id));
+
+            // 发布更新事件：后镜像、前镜像和变化的字段
+            DataChangeEvent event = new DataChangeEvent("customer", id, "UPDATE", updated, LocalDateTime.now());
+            event.setVersion(updated.getVersion());
+            event.setBefore(existingCustomer);
+            event.setChangedFields(changedFields);
+            eventPublisher.publishEvent(event);
+
+            return updated;
         } else {
-            throw new RuntimeException("Customer not found with id: " + id);
+            throw new CustomerNotFoundException(id);
         }
     }
 
     @Transactional
-    @CacheEvict(cacheNames = "customers", allEntries = true)
     public void deleteCustomer(Long id) {
         log.info("Deleting customer with id: {}", id);
         Customer existingCustomer = customerMapper.selectById(id);
@@ -117,19 +149,15 @@ public class CustomerService extends ServiceImpl<CustomerMapper, Customer> {
         if (existingCustomer != null) {
             customerMapper.deleteById(id);
 
-            // 从 Redis 缓存中删除
-            redisTemplate.delete(CACHE_KEY_CUSTOMER + id);
-            redisTemplate.delete(CACHE_KEY_ALL_CUSTOMERS);
-
-            // 发布删除事件
-            eventPublisher.publishEvent(
-                    "customer",
-                    id,
-                    "DELETE",
-                    existingCustomer
-            );
+            // 提交后从缓存中删除
+            customerCache.evictAfterCommit(Collections.singletonList(id));
+
+            // 发布删除事件，data 为删除前的整行
+            DataChangeEvent event = new DataChangeEvent("customer", id, "DELETE", existingCustomer, LocalDateTime.now());
+            event.setVersion(existingCustomer.getVersion());
+            eventPublisher.publishEvent(event);
         } else {
-            throw new RuntimeException("Customer not found with id: " + id);
+            throw new CustomerNotFoundException(id);
         }
     }
 }
\ No newline at end of file
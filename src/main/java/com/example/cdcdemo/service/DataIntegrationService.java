@@ -1,25 +1,54 @@
 package com.example.cdcdemo.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.example.cdcdemo.mapper.CustomerMapper;
+import com.example.cdcdemo.cache.RedisUnitOfWork;
+import com.example.cdcdemo.config.IntegrationProperties;
 import com.example.cdcdemo.mapper.IntegrationJobMapper;
+import com.example.cdcdemo.mapper.IntegrationJobShardMapper;
 import com.example.cdcdemo.model.Customer;
 import com.example.cdcdemo.model.integration.DataIntegrationRequest;
 import com.example.cdcdemo.model.integration.IntegrationJob;
+import com.example.cdcdemo.model.integration.IntegrationJobShard;
 import com.example.cdcdemo.model.integration.IntegrationStatus;
 import com.example.cdcdemo.publisher.ChangeEventPublisher;
+import com.example.cdcdemo.service.integration.CustomerBatchWriter;
+import com.example.cdcdemo.service.integration.CustomerFieldMapping;
+import com.example.cdcdemo.service.integration.IntegrationLeaseLostException;
+import com.example.cdcdemo.service.integration.IntegrationLeaseManager;
+import com.example.cdcdemo.service.integration.IntegrationPartitioner;
+import com.example.cdcdemo.service.integration.IntegrationProgressTracker;
+import com.example.cdcdemo.service.integration.IntegrationStatusBroadcaster;
+import com.example.cdcdemo.service.integration.IntegrationStrategy;
+import com.example.cdcdemo.service.integration.source.CsvRecordReader;
+import com.example.cdcdemo.service.integration.source.JsonArrayRecordReader;
+import com.example.cdcdemo.service.integration.source.MappedCsvCustomerReader;
+import com.example.cdcdemo.service.integration.source.MockRecordReader;
+import com.example.cdcdemo.service.integration.source.SourceRecordReader;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,60 +57,72 @@ import java.util.stream.Collectors;
 public class DataIntegrationService {
 
     private final IntegrationJobMapper integrationJobMapper;
-    private final CustomerMapper customerMapper;
-    private final CustomerService customerService;
+    private final IntegrationJobShardMapper shardMapper;
     private final ChangeEventPublisher eventPublisher;
-    private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
+    private final CustomerBatchWriter customerBatchWriter;
+    private final IntegrationProperties integrationProperties;
+    private final IntegrationProgressTracker progressTracker;
+    private final IntegrationStatusBroadcaster statusBroadcaster;
+    private final IntegrationLeaseManager leaseManager;
+    private final TransactionTemplate transactionTemplate;
+    // Status entries are written and read through this one template so they always share a serializer
+    private final RedisTemplate<String, IntegrationStatus> integrationStatusRedisTemplate;
+    private final RedisUnitOfWork redisUnitOfWork;
 
     private static final String INTEGRATION_STATUS_KEY = "integration:status:";
-    private static final String INTEGRATION_JOBS_KEY = "integration:jobs";
-     @Autowired
-    private RedisTemplate<String, IntegrationStatus> integrationStatusRedisTemplate;
-
+    private static final Duration STATUS_TTL = Duration.ofHours(24);
+    private static final TypeReference<Map<String, String>> FIELD_MAPPINGS = new TypeReference<Map<String, String>>() {};
+    private static final TypeReference<Map<String, Object>> SOURCE_CONFIG = new TypeReference<Map<String, Object>>() {};
 
+    /**
+     * Cache-aside status read: the cached status (or the job row on a miss), with the live
+     * counters from Redis laid over it while the job is processing.
+     */
     public IntegrationStatus getIntegrationStatus(String integrationId) {
-        // Use the typed template to retrieve IntegrationStatus directly
-        IntegrationStatus cachedStatus = integrationStatusRedisTemplate
+        IntegrationStatus status = integrationStatusRedisTemplate
             .opsForValue()
             .get(INTEGRATION_STATUS_KEY + integrationId);
-        if (cachedStatus != null) {
-            return cachedStatus; // No casting needed
-        }
 
-        // Fetch from database if not in cache
-        IntegrationJob job = integrationJobMapper.selectOne(
-            new QueryWrapper<IntegrationJob>().eq("integration_id", integrationId)
-        );
-        if (job == null) {
-            return null;
-        }
-
-        // Build IntegrationStatus from job
-        IntegrationStatus status = IntegrationStatus.builder()
-            .integrationId(job.getIntegrationId())
-            .sourceName(job.getSourceName())
-            .targetEntity(job.getTargetEntity())
-            .status(job.getStatus())
-            .startTime(job.getStartTime())
-            .endTime(job.getEndTime())
-            .recordsProcessed(job.getRecordsProcessed())
-            .recordsSuccess(job.getRecordsSuccess())
-            .recordsFailed(job.getRecordsFailed())
-            .errorMessage(job.getErrorMessage())
-            .build();
-
-        // Cache the status using the typed template
-        integrationStatusRedisTemplate
-            .opsForValue()
-            .set(INTEGRATION_STATUS_KEY + integrationId, status, 24, TimeUnit.HOURS);
+        if (status == null) {
+            // Fetch from database if not in cache
+            IntegrationJob job = integrationJobMapper.selectOne(
+                new QueryWrapper<IntegrationJob>().eq("integration_id", integrationId)
+            );
+            if (job == null) {
+                return null;
+            }
+            status = toStatus(job);
+            IntegrationStatus loaded = status;
+            redisUnitOfWork.execute(connection -> cacheStatus(connection, loaded));
+        }
 
+        if ("PROCESSING".equals(status.getStatus())) {
+            IntegrationProgressTracker.Progress progress = progressTracker.current(integrationId);
+            if (progress != null) {
+                status.setRecordsProcessed(progress.getProcessed());
+                status.setRecordsSuccess(progress.getSuccess());
+                status.setRecordsFailed(progress.getFailed());
+            }
+        }
         return status;
     }
 
-    // Update submitIntegration to use the typed template
+    /**
+     * Record a job in the shared job table; any node with a free worker claims it (see IntegrationJobDispatcher).
+     * With {@code sourceConfig.shards > 1} the job is split into shard rows that are claimed separately.
+     * Shards split the records by id hash, not by position, so each shard still reads and parses the
+     * whole source: sharding spreads mapping and writing over nodes, but the source is read once per shard.
+     *
+     * @throws RejectedExecutionException if the cluster-wide backlog is full
+     */
     public IntegrationStatus submitIntegration(DataIntegrationRequest request) {
+        if (integrationJobMapper.countPending() >= integrationProperties.getScheduler().getMaxPending()) {
+            throw new RejectedExecutionException("Integration job backlog is full");
+        }
+
         String integrationId = UUID.randomUUID().toString();
+        int shards = shardCount(request.getSourceType(), request.getSourceConfig());
         IntegrationJob job = IntegrationJob.builder()
             .integrationId(integrationId)
             .sourceName(request.getSourceName())
@@ -92,33 +133,35 @@ public class DataIntegrationService {
             .requestTime(LocalDateTime.now())
             .fieldMappings(serializeToJson(request.getFieldMappings()))
             .sourceConfig(serializeToJson(request.getSourceConfig()))
+            .shardCount(shards)
             .build();
-        integrationJobMapper.insert(job);
-
-        IntegrationStatus initialStatus = IntegrationStatus.builder()
-            .integrationId(integrationId)
-            .sourceName(request.getSourceName())
-            .targetEntity(request.getTargetEntity())
-            .status("PENDING")
-            .startTime(null)
-            .endTime(null)
-            .recordsProcessed(null)
-            .recordsSuccess(null)
-            .recordsFailed(null)
-            .errorMessage(null)
-            .build();
-
-        // Cache using the typed template
-        integrationStatusRedisTemplate
-            .opsForValue()
-            .set(INTEGRATION_STATUS_KEY + integrationId, initialStatus, 24, TimeUnit.HOURS);
-
-        // Trigger async processing (assumed method)
-        processIntegration(integrationId);
+        transactionTemplate.executeWithoutResult(tx -> {
+            integrationJobMapper.insert(job);
+            if (shards > 1) {
+                List<IntegrationJobShard> rows = new ArrayList<>(shards);
+                for (int i = 0; i < shards; i++) {
+                    rows.add(IntegrationJobShard.builder()
+                            .integrationId(integrationId).shardIndex(i).shardCount(shards).status("PENDING")
+                            .build());
+                }
+                shardMapper.insertBatch(rows);
+            }
+        });
 
+        // The caller gets the PENDING status back immediately
+        IntegrationStatus initialStatus = toStatus(job);
+        storeStatus(initialStatus);
         return initialStatus;
     }
 
+    private int shardCount(String sourceType, Map<String, Object> sourceConfig) {
+        if (sourceConfig == null || !sourceConfig.containsKey("shards") || isMappedCsv(sourceType, sourceConfig)) {
+            return 1;
+        }
+        int shards = Integer.parseInt(sourceConfig.get("shards").toString());
+        return Math.max(1, Math.min(shards, integrationProperties.getScheduler().getMaxShards()));
+    }
+
     /**
      * Get all integration jobs
      */
@@ -128,196 +171,393 @@ public class DataIntegrationService {
 
         // Convert to status objects
         return jobs.stream()
-                .map(job -> IntegrationStatus.builder()
-                        .integrationId(job.getIntegrationId())
-                        .sourceName(job.getSourceName())
-                        .targetEntity(job.getTargetEntity())
-                        .status(job.getStatus())
-                        .startTime(job.getStartTime())
-                        .endTime(job.getEndTime())
-                        .recordsProcessed(job.getRecordsProcessed())
-                        .recordsSuccess(job.getRecordsSuccess())
-                        .recordsFailed(job.getRecordsFailed())
-                        .errorMessage(job.getErrorMessage())
-                        .build())
+                .map(this::toStatus)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Process the integration asynchronously
+     * Process a whole (unsharded) job on an integration worker thread; it continues from its
+     * last checkpoint if another node was running it before
      */
-    @Async
-    protected void processIntegration(String integrationId) {
+    public void processIntegration(String integrationId) {
         log.info("Starting integration process for job: {}", integrationId);
+        // Extend the lease taken when the job was claimed; fails if another node took over while queued
+        if (!leaseManager.acquire(integrationId)) {
+            log.info("Skipping integration job {}: it is finished or owned by another node", integrationId);
+            return;
+        }
         try {
-            // Fetch the job using integration_id instead of id
-            IntegrationJob job = integrationJobMapper.selectOne(
-                    new QueryWrapper<IntegrationJob>().eq("integration_id", integrationId)
-            );
+            IntegrationJob job = selectJob(integrationId);
             if (job == null) {
                 log.error("Integration job not found: {}", integrationId);
                 return;
             }
 
             // Update status to PROCESSING
+            progressTracker.start(integrationId);
             updateJobStatus(job, "PROCESSING", null);
 
             // Deserialize field mappings and source config
-            Map<String, String> fieldMappings = deserializeFromJson(job.getFieldMappings(), Map.class);
-            Map<String, Object> sourceConfig = deserializeFromJson(job.getSourceConfig(), Map.class);
+            Map<String, String> fieldMappings = deserializeFromJson(job.getFieldMappings(), FIELD_MAPPINGS);
+            Map<String, Object> sourceConfig = deserializeFromJson(job.getSourceConfig(), SOURCE_CONFIG);
 
-            // Get data from the source
-            List<Map<String, Object>> sourceData = fetchSourceData(job.getSourceType(), sourceConfig);
-
-            // Process the data based on target entity
-            if ("customer".equals(job.getTargetEntity().toLowerCase())) {
-                processCustomerData(job, sourceData, fieldMappings);
+            // Process the data based on target entity, consuming records as the source is read
+            checkTargetEntity(job);
+            if (isMappedCsv(job.getSourceType(), sourceConfig)) {
+                processMappedCsvCustomerData(job, sourceConfig, fieldMappings);
             } else {
-                throw new RuntimeException("Unsupported target entity: " + job.getTargetEntity());
+                long offset = job.getCheckpointOffset() == null ? 0 : job.getCheckpointOffset();
+                // records_success is also written by the progress flush, which runs ahead of or behind the checkpoint
+                long success = offset == 0 || job.getCheckpointSuccess() == null ? 0 : job.getCheckpointSuccess();
+                if (offset > 0) {
+                    progressTracker.increment(integrationId, offset, success);
+                    log.info("Resuming integration job {} after {} source records", integrationId, offset);
+                }
+                RecordSlice slice = new RecordSlice(0, 1, offset, offset, success,
+                        (consumed, processed, written) -> leaseManager.checkpoint(integrationId, consumed, written));
+                try (SourceRecordReader sourceData = fetchSourceData(job.getSourceType(), sourceConfig)) {
+                    processCustomerData(job, sourceData, fieldMappings, slice, partitionWorkers(sourceConfig));
+                }
+                progressTracker.finish(integrationId);
+                updateJobCounts(job, slice.processed, slice.success);
             }
 
             // Update job status to COMPLETED
             updateJobStatus(job, "COMPLETED", null);
             log.info("Integration job completed successfully: {}", integrationId);
 
+        } catch (IntegrationLeaseLostException e) {
+            // Another node resumed the job from its last checkpoint; leave the row to it
+            log.warn("Stopping integration job {}: {}", integrationId, e.getMessage());
+            progressTracker.finish(integrationId);
+            return;
         } catch (Exception e) {
             log.error("Error processing integration job: {}", integrationId, e);
-            IntegrationJob job = integrationJobMapper.selectOne(
-                    new QueryWrapper<IntegrationJob>().eq("integration_id", integrationId)
-            );
+            IntegrationJob job = selectJob(integrationId);
+            // Keep the counts of the chunks written before the failure
+            IntegrationProgressTracker.Progress progress = progressTracker.finish(integrationId);
+            if (job != null && progress != null) {
+                job.setRecordsProcessed(progress.getProcessed());
+                job.setRecordsSuccess(progress.getSuccess());
+                job.setRecordsFailed(progress.getFailed());
+            }
             updateJobStatus(job, "FAILED", e.getMessage());
         }
+        leaseManager.release(integrationId);
     }
 
     /**
-     * Process customer data integration
+     * Process one shard of a sharded job. The shard that finishes last rolls the shard counts up into
+     * the job and sets its final status.
+     * <p>
+     * The shard reads the whole source and keeps only the records whose id hashes to it, discarding the
+     * other (count - 1) / count. Splitting by position instead would let two shards write the same entity
+     * concurrently and out of order.
      */
-    private void processCustomerData(IntegrationJob job, List<Map<String, Object>> sourceData, Map<String, String> fieldMappings) {
-        long processed = 0;
-        long success = 0;
-        long failed = 0;
+    public void processShard(Long shardId) {
+        if (!leaseManager.acquireShard(shardId)) {
+            log.info("Skipping integration job shard {}: it is finished or owned by another node", shardId);
+            return;
+        }
+        IntegrationJobShard shard = shardMapper.selectById(shardId);
+        String integrationId = shard.getIntegrationId();
+        log.info("Starting shard {}/{} of integration job {}", shard.getShardIndex() + 1, shard.getShardCount(), integrationId);
+
+        long offset = shard.getCheckpointOffset() == null ? 0 : shard.getCheckpointOffset();
+        RecordSlice slice = new RecordSlice(shard.getShardIndex(), shard.getShardCount(), offset,
+                shard.getRecordsProcessed() == null ? 0 : shard.getRecordsProcessed(),
+                shard.getRecordsSuccess() == null ? 0 : shard.getRecordsSuccess(),
+                (consumed, processed, written) -> leaseManager.checkpointShard(shardId, consumed, processed, written));
+        String status = "COMPLETED";
+        String errorMessage = null;
+
+        progressTracker.join(integrationId);
+        try {
+            IntegrationJob job = selectJob(integrationId);
+            if (integrationJobMapper.markProcessing(integrationId) > 0) {
+                // First shard to start
+                job = selectJob(integrationId);
+                IntegrationStatus started = toStatus(job);
+                storeStatus(started);
+            }
+            checkTargetEntity(job);
+            Map<String, String> fieldMappings = deserializeFromJson(job.getFieldMappings(), FIELD_MAPPINGS);
+            Map<String, Object> sourceConfig = deserializeFromJson(job.getSourceConfig(), SOURCE_CONFIG);
+            try (SourceRecordReader sourceData = fetchSourceData(job.getSourceType(), sourceConfig)) {
+                processCustomerData(job, sourceData, fieldMappings, slice, partitionWorkers(sourceConfig));
+            }
+        } catch (IntegrationLeaseLostException e) {
+            log.warn("Stopping shard {} of integration job {}: {}", shardId, integrationId, e.getMessage());
+            progressTracker.leave(integrationId);
+            return;
+        } catch (Exception e) {
+            log.error("Error processing shard {} of integration job {}", shardId, integrationId, e);
+            status = "FAILED";
+            errorMessage = e.getMessage();
+        }
+        progressTracker.leave(integrationId);
 
-        for (Map<String, Object> sourceRecord : sourceData) {
-            try {
-                processed++;
-
-                // Map source fields to target fields
-                Customer customer = new Customer();
-
-                // Apply field mappings
-                for (Map.Entry<String, String> mapping : fieldMappings.entrySet()) {
-                    String sourceField = mapping.getKey();
-                    String targetField = mapping.getValue();
-
-                    if (sourceRecord.containsKey(sourceField)) {
-                        Object value = sourceRecord.get(sourceField);
-
-                        // Set value based on target field
-                        switch (targetField.toLowerCase()) {
-                            case "id":
-                                if (value != null) {
-                                    customer.setId(Long.valueOf(value.toString()));
-                                }
-                                break;
-                            case "name":
-                                customer.setName(value != null ? value.toString() : null);
-                                break;
-                            case "email":
-                                customer.setEmail(value != null ? value.toString() : null);
-                                break;
-                            case "phone":
-                                customer.setPhone(value != null ? value.toString() : null);
-                                break;
-                            case "address":
-                                customer.setAddress(value != null ? value.toString() : null);
-                                break;
-                            default:
-                                log.warn("Unknown target field: {}", targetField);
-                        }
-                    }
+        try {
+            completeShard(integrationId, shardId, status, slice.processed, slice.success, errorMessage);
+        } catch (IntegrationLeaseLostException e) {
+            log.warn("Shard {} of integration job {} was taken over before it finished", shardId, integrationId);
+            return;
+        }
+        leaseManager.releaseShard(shardId);
+    }
+
+    /**
+     * Write the shard's final state under the job row lock; if it was the last shard, finish the job
+     */
+    private void completeShard(String integrationId, Long shardId, String status, long processed, long success,
+                               String errorMessage) {
+        List<IntegrationJobShard> shards = transactionTemplate.execute(tx -> {
+            integrationJobMapper.lockJob(integrationId);
+            leaseManager.finishShard(shardId, status, processed, success, errorMessage);
+            List<IntegrationJobShard> all = shardMapper.selectList(
+                    new QueryWrapper<IntegrationJobShard>().eq("integration_id", integrationId));
+            for (IntegrationJobShard shard : all) {
+                if (!"COMPLETED".equals(shard.getStatus()) && !"FAILED".equals(shard.getStatus())) {
+                    return null;
+                }
+            }
+            return all;
+        });
+        if (shards == null) {
+            return;
+        }
+
+        long totalProcessed = 0;
+        long totalSuccess = 0;
+        String failure = null;
+        for (IntegrationJobShard shard : shards) {
+            totalProcessed += shard.getRecordsProcessed();
+            totalSuccess += shard.getRecordsSuccess();
+            if ("FAILED".equals(shard.getStatus()) && failure == null) {
+                failure = "Shard " + shard.getShardIndex() + ": " + shard.getErrorMessage();
+            }
+        }
+        IntegrationJob job = selectJob(integrationId);
+        progressTracker.finish(integrationId);
+        job.setRecordsProcessed(totalProcessed);
+        job.setRecordsSuccess(totalSuccess);
+        job.setRecordsFailed(totalProcessed - totalSuccess);
+        updateJobStatus(job, failure == null ? "COMPLETED" : "FAILED", failure);
+        log.info("Integration job {} finished with {} shards", integrationId, shards.size());
+    }
+
+    private IntegrationJob selectJob(String integrationId) {
+        return integrationJobMapper.selectOne(
+                new QueryWrapper<IntegrationJob>().eq("integration_id", integrationId)
+        );
+    }
+
+    private void checkTargetEntity(IntegrationJob job) {
+        if (!"customer".equals(job.getTargetEntity().toLowerCase())) {
+            throw new RuntimeException("Unsupported target entity: " + job.getTargetEntity());
+        }
+    }
+
+    /**
+     * Process customer data integration for the records of one slice of the source.
+     * With one worker, each chunk commits together with a checkpoint of the source records consumed
+     * so far, so a job resumed on another node skips exactly the records that were written.
+     * With more, see {@link PartitionedChunkWriter}. The slice's counters are advanced as chunks commit.
+     */
+    private void processCustomerData(IntegrationJob job, SourceRecordReader sourceData, Map<String, String> fieldMappings,
+                                     RecordSlice slice, int workers) {
+        String integrationId = job.getIntegrationId();
+        long offset = slice.offset > 0 ? sourceData.skip(slice.offset) : 0;
+        long reported = slice.processed;
+
+        IntegrationStrategy strategy = IntegrationStrategy.parse(job.getIntegrationStrategy());
+        CustomerFieldMapping fieldMapping = CustomerFieldMapping.compile(fieldMappings);
+        int chunkSize = integrationProperties.getChunkSize();
+        List<Customer> chunk = new ArrayList<>(chunkSize);
+        // Shard i of n, worker j of m owns partition i + n * j of n * m
+        int partitions = slice.count * workers;
+        PartitionedChunkWriter writer = workers > 1 ? new PartitionedChunkWriter(job, strategy, workers) : null;
+
+        try {
+            while (sourceData.hasNext()) {
+                Map<String, Object> sourceRecord = sourceData.next();
+                long index = offset++;
+                Customer customer = null;
+                Exception mappingError = null;
+                try {
+                    // Map source fields to target fields with the precompiled plan
+                    customer = fieldMapping.map(sourceRecord);
+                } catch (Exception e) {
+                    mappingError = e;
+                }
+                int partition = IntegrationPartitioner.partition(customer, index, strategy, partitions);
+                if (partition % slice.count != slice.index) {
+                    // Another shard's record
+                    continue;
+                }
+                slice.processed++;
+                if (customer == null) {
+                    log.error("Error processing record: {}", sourceRecord, mappingError);
+                } else if (writer != null) {
+                    writer.add(partition / slice.count, customer);
+                } else {
+                    chunk.add(customer);
                 }
 
-                // Apply integration strategy
-                switch (job.getIntegrationStrategy().toUpperCase()) {
-                    case "MERGE":
-                        if (customer.getId() != null) {
-                            // Get existing customer
-                            Customer existingCustomer = customerMapper.selectById(customer.getId());
-                            if (existingCustomer != null) {
-                                // Apply non-null values from new customer
-                                if (customer.getName() != null) {
-                                    existingCustomer.setName(customer.getName());
-                                }
-                                if (customer.getEmail() != null) {
-                                    existingCustomer.setEmail(customer.getEmail());
-                                }
-                                if (customer.getPhone() != null) {
-                                    existingCustomer.setPhone(customer.getPhone());
-                                }
-                                if (customer.getAddress() != null) {
-                                    existingCustomer.setAddress(customer.getAddress());
-                                }
-
-                                // Update customer
-                                customerService.updateCustomer(existingCustomer.getId(), existingCustomer);
-                            } else {
-                                // Create new customer
-                                customerService.createCustomer(customer);
-                            }
-                        } else {
-                            // Create new customer
-                            customerService.createCustomer(customer);
-                        }
-                        break;
-
-                    case "REPLACE":
-                        if (customer.getId() != null) {
-                            // Check if customer exists
-                            Customer existingCustomer = customerMapper.selectById(customer.getId());
-                            if (existingCustomer != null) {
-                                // Replace customer
-                                customerService.updateCustomer(existingCustomer.getId(), customer);
-                            } else {
-                                // Create new customer
-                                customerService.createCustomer(customer);
-                            }
-                        } else {
-                            // Create new customer
-                            customerService.createCustomer(customer);
-                        }
-                        break;
-
-                    case "APPEND":
-                        // Always create new customer
-                        customer.setId(null); // Ensure ID is null to create new entry
-                        customerService.createCustomer(customer);
-                        break;
-
-                    default:
-                        throw new RuntimeException("Unsupported integration strategy: " + job.getIntegrationStrategy());
+                if (writer != null) {
+                    if (slice.processed - reported >= (long) chunkSize * workers) {
+                        writer.checkpoint(slice, offset, slice.processed - reported);
+                        reported = slice.processed;
+                    }
+                } else if (chunk.size() >= chunkSize) {
+                    int written = flushChunk(chunk, strategy, slice.checkpointAt(offset));
+                    slice.success += written;
+                    progressTracker.increment(integrationId, slice.processed - reported, written);
+                    publishProgress(job);
+                    reported = slice.processed;
                 }
+            }
+            if (writer != null) {
+                writer.checkpoint(slice, offset, slice.processed - reported);
+            } else {
+                int written = flushChunk(chunk, strategy, slice.checkpointAt(offset));
+                slice.success += written;
+                progressTracker.increment(integrationId, slice.processed - reported, written);
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
 
-                success++;
-            } catch (Exception e) {
-                log.error("Error processing record: {}", sourceRecord, e);
-                failed++;
+    /**
+     * Write lanes for the record loop: {@code sourceConfig.partitionWorkers}, else the configured default.
+     * ({@code sourceConfig.parallelism} is the parse thread count of the memory-mapped CSV path.)
+     */
+    private int partitionWorkers(Map<String, Object> sourceConfig) {
+        int workers = sourceConfig != null && sourceConfig.containsKey("partitionWorkers")
+                ? Integer.parseInt(sourceConfig.get("partitionWorkers").toString())
+                : integrationProperties.getPartitionWorkers();
+        return Math.max(1, workers);
+    }
+
+    /**
+     * Process a memory-mapped CSV source: ranges of the file are parsed in parallel straight
+     * into customers, and each range writes its own chunks.
+     * Rows for the same id in different ranges are not applied in file order.
+     * <p>
+     * Ranges finish out of order, so there is no single offset to resume from. Every chunk still
+     * checkpoints the running totals under the lease, which stops a previous owner as soon as the job
+     * is taken over. A job that committed chunks before it was interrupted is restarted from the top,
+     * except under APPEND, where that would insert the written rows again; such a job fails instead.
+     */
+    private void processMappedCsvCustomerData(IntegrationJob job, Map<String, Object> sourceConfig,
+                                              Map<String, String> fieldMappings) throws IOException {
+        String integrationId = job.getIntegrationId();
+        IntegrationStrategy strategy = IntegrationStrategy.parse(job.getIntegrationStrategy());
+        if (job.getCheckpointOffset() != null && job.getCheckpointOffset() > 0) {
+            if (strategy == IntegrationStrategy.APPEND) {
+                throw new RuntimeException("Memory-mapped APPEND job was interrupted after writing "
+                        + job.getCheckpointOffset() + " records and cannot be resumed without duplicating them");
             }
+            log.warn("Memory-mapped integration job {} cannot resume from a checkpoint, restarting it", integrationId);
         }
 
-        // Update job with counts
+        int parallelism = sourceConfig.containsKey("parallelism")
+                ? Integer.parseInt(sourceConfig.get("parallelism").toString())
+                : Runtime.getRuntime().availableProcessors();
+        MappedCsvCustomerReader reader = new MappedCsvCustomerReader(
+                sourcePath(sourceConfig), csvDelimiter(sourceConfig), CustomerFieldMapping.compile(fieldMappings));
+        AtomicLong processed = new AtomicLong();
+        AtomicLong success = new AtomicLong();
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            reader.read(pool, integrationProperties.getChunkSize(), chunk -> {
+                int size = chunk.size();
+                // Totals so far, committed with the chunk; throws once another node owns the job
+                int written = flushChunk(chunk, strategy, n -> leaseManager.checkpoint(integrationId,
+                        processed.get() + size, success.get() + n));
+                processed.addAndGet(size);
+                success.addAndGet(written);
+                progressTracker.increment(integrationId, size, written);
+                publishProgress(job);
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        progressTracker.finish(integrationId);
+        updateJobCounts(job, reader.getRecords() + reader.getFailed(), success.get());
+    }
+
+    private boolean isMappedCsv(String sourceType, Map<String, Object> sourceConfig) {
+        return "CSV".equalsIgnoreCase(sourceType) && Boolean.parseBoolean(String.valueOf(sourceConfig.get("mmap")));
+    }
+
+    private void updateJobCounts(IntegrationJob job, long processed, long success) {
         job.setRecordsProcessed(processed);
         job.setRecordsSuccess(success);
-        job.setRecordsFailed(failed);
+        job.setRecordsFailed(processed - success);
         integrationJobMapper.updateById(job);
     }
 
+    /**
+     * Write the buffered chunk in one transaction together with the checkpoint, and clear it.
+     * If the chunk fails as a whole, its records are retried one by one so a single
+     * bad row only fails itself, and the checkpoint is written after them. The retries start from
+     * copies taken before the chunk, since the failed attempt has already filled in the ids generated
+     * for id-less records and the row versions in a transaction that rolled back.
+     * <p>
+     * The retried records commit one by one before that checkpoint, so a job that dies in between is
+     * resumed before them and writes them again: keyed records are upserted to the same state, but
+     * records without an id are inserted a second time.
+     *
+     * @return number of records written successfully
+     */
+    private int flushChunk(List<Customer> chunk, IntegrationStrategy strategy, IntConsumer checkpoint) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Customer> originals = new ArrayList<>(chunk.size());
+        for (Customer customer : chunk) {
+            originals.add(new Customer(customer.getId(), customer.getName(), customer.getEmail(),
+                    customer.getPhone(), customer.getAddress(), customer.getVersion()));
+        }
+        int written = 0;
+        try {
+            Integer chunkWritten = transactionTemplate.execute(status -> {
+                int n = customerBatchWriter.writeChunk(chunk, strategy);
+                checkpoint.accept(n);
+                return n;
+            });
+            written = chunkWritten == null ? 0 : chunkWritten;
+        } catch (IntegrationLeaseLostException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Chunk of {} records failed, retrying record by record", chunk.size(), e);
+            for (Customer customer : originals) {
+                try {
+                    written += customerBatchWriter.writeChunk(Collections.singletonList(customer), strategy);
+                } catch (Exception recordError) {
+                    log.error("Error writing record: {}", customer, recordError);
+                }
+            }
+            checkpoint.accept(written);
+        }
+        chunk.clear();
+        return written;
+    }
+
     /**
      * Update the status of an integration job
      */
     private void updateJobStatus(IntegrationJob job, String status, String errorMessage) {
         job.setStatus(status);
 
-        if ("PROCESSING".equals(status)) {
+        if ("PROCESSING".equals(status) && job.getStartTime() == null) {
+            // A resumed job keeps its original start time
             job.setStartTime(LocalDateTime.now());
         } else if ("COMPLETED".equals(status) || "FAILED".equals(status)) {
             job.setEndTime(LocalDateTime.now());
@@ -329,8 +569,48 @@ public class DataIntegrationService {
 
         integrationJobMapper.updateById(job);
 
-        // Update Redis cache
-        IntegrationStatus statusObj = IntegrationStatus.builder()
+        // Update Redis cache and notify subscribers on every node
+        IntegrationStatus statusObj = toStatus(job);
+        storeStatus(statusObj);
+    }
+
+    /**
+     * Push the running totals of a job (of all its shards, if it has them) to its subscribers;
+     * the cached status keeps the last state change
+     */
+    private void publishProgress(IntegrationJob job) {
+        IntegrationStatus status = toStatus(job);
+        IntegrationProgressTracker.Progress progress = progressTracker.current(job.getIntegrationId());
+        if (progress != null) {
+            status.setRecordsProcessed(progress.getProcessed());
+            status.setRecordsSuccess(progress.getSuccess());
+            status.setRecordsFailed(progress.getFailed());
+        }
+        statusBroadcaster.publish(status);
+    }
+
+    /**
+     * Cache the new status and notify subscribers on every node, in one pipeline sent after the
+     * current transaction commits (right away without one)
+     */
+    private void storeStatus(IntegrationStatus status) {
+        redisUnitOfWork.afterCommit(connection -> {
+            cacheStatus(connection, status);
+            statusBroadcaster.publish(connection, status);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cacheStatus(RedisConnection connection, IntegrationStatus status) {
+        byte[] key = ((RedisSerializer<String>) integrationStatusRedisTemplate.getKeySerializer())
+                .serialize(INTEGRATION_STATUS_KEY + status.getIntegrationId());
+        byte[] value = ((RedisSerializer<IntegrationStatus>) integrationStatusRedisTemplate.getValueSerializer())
+                .serialize(status);
+        redisUnitOfWork.set(connection, key, value, STATUS_TTL);
+    }
+
+    private IntegrationStatus toStatus(IntegrationJob job) {
+        return IntegrationStatus.builder()
                 .integrationId(job.getIntegrationId())
                 .sourceName(job.getSourceName())
                 .targetEntity(job.getTargetEntity())
@@ -342,95 +622,85 @@ public class DataIntegrationService {
                 .recordsFailed(job.getRecordsFailed())
                 .errorMessage(job.getErrorMessage())
                 .build();
-
-        redisTemplate.opsForValue().set(
-                INTEGRATION_STATUS_KEY + job.getIntegrationId(),
-                statusObj,
-                24,
-                TimeUnit.HOURS
-        );
     }
 
     /**
-     * Fetch data from the source based on source type and configuration
+     * Open a reader over the source based on source type and configuration
      */
-    private List<Map<String, Object>> fetchSourceData(String sourceType, Map<String, Object> sourceConfig) {
-        List<Map<String, Object>> data = new ArrayList<>();
-
+    private SourceRecordReader fetchSourceData(String sourceType, Map<String, Object> sourceConfig) throws IOException {
         switch (sourceType.toUpperCase()) {
             case "CSV":
-                data = fetchCsvData(sourceConfig);
-                break;
+                return fetchCsvData(sourceConfig);
             case "JSON":
-                data = fetchJsonData(sourceConfig);
-                break;
+                return fetchJsonData(sourceConfig);
             case "API":
-                data = fetchApiData(sourceConfig);
-                break;
+                return fetchApiData(sourceConfig);
             case "MOCK":
-                data = generateMockData(sourceConfig);
-                break;
+                return generateMockData(sourceConfig);
             default:
                 throw new RuntimeException("Unsupported source type: " + sourceType);
         }
-
-        return data;
     }
 
     /**
      * Generate mock data for testing
      */
-    private List<Map<String, Object>> generateMockData(Map<String, Object> sourceConfig) {
+    private SourceRecordReader generateMockData(Map<String, Object> sourceConfig) {
         int count = 10;
         if (sourceConfig.containsKey("count")) {
             count = Integer.parseInt(sourceConfig.get("count").toString());
         }
-
-        List<Map<String, Object>> mockData = new ArrayList<>();
-
-        for (int i = 0; i < count; i++) {
-            Map<String, Object> record = new HashMap<>();
-            record.put("id", i + 100L);
-            record.put("name", "Integration User " + i);
-            record.put("email", "integration_user" + i + "@example.com");
-            record.put("phone", "555-" + String.format("%04d", i));
-            record.put("address", i + " Integration Street");
-            mockData.add(record);
-        }
-
-        return mockData;
+        return new MockRecordReader(count);
     }
 
     /**
-     * Fetch data from a CSV file
+     * Stream records from a local CSV file (sourceConfig: path, delimiter, charset).
+     * With {@code mmap: true} the file is instead parsed in parallel, see processMappedCsvCustomerData
      */
-    private List<Map<String, Object>> fetchCsvData(Map<String, Object> sourceConfig) {
-        // In a real implementation, this would read from a CSV file
-        log.info("Fetching CSV data with config: {}", sourceConfig);
-        // For now, return mock data
-        return generateMockData(sourceConfig);
+    private SourceRecordReader fetchCsvData(Map<String, Object> sourceConfig) throws IOException {
+        log.info("Reading CSV data with config: {}", sourceConfig);
+        Path path = sourcePath(sourceConfig);
+        Charset charset = sourceConfig.containsKey("charset")
+                ? Charset.forName(sourceConfig.get("charset").toString())
+                : StandardCharsets.UTF_8;
+        return new CsvRecordReader(Files.newBufferedReader(path, charset), csvDelimiter(sourceConfig));
+    }
+
+    private char csvDelimiter(Map<String, Object> sourceConfig) {
+        String delimiter = sourceConfig.containsKey("delimiter") ? sourceConfig.get("delimiter").toString() : ",";
+        if (delimiter.length() != 1) {
+            throw new RuntimeException("CSV delimiter must be a single character: " + delimiter);
+        }
+        return delimiter.charAt(0);
     }
 
     /**
-     * Fetch data from JSON
+     * Stream records from a local file holding a JSON array of objects (sourceConfig: path)
      */
-    private List<Map<String, Object>> fetchJsonData(Map<String, Object> sourceConfig) {
-        // In a real implementation, this would parse JSON data
-        log.info("Fetching JSON data with config: {}", sourceConfig);
-        // For now, return mock data
-        return generateMockData(sourceConfig);
+    private SourceRecordReader fetchJsonData(Map<String, Object> sourceConfig) throws IOException {
+        log.info("Reading JSON data with config: {}", sourceConfig);
+        Path path = sourcePath(sourceConfig);
+        return new JsonArrayRecordReader(objectMapper.getFactory().createParser(path.toFile()));
     }
 
     /**
      * Fetch data from an API
      */
-    private List<Map<String, Object>> fetchApiData(Map<String, Object> sourceConfig) {
+    private SourceRecordReader fetchApiData(Map<String, Object> sourceConfig) {
         // In a real implementation, this would call an external API
         log.info("Fetching API data with config: {}", sourceConfig);
         // For now, return mock data
         return generateMockData(sourceConfig);
     }
 
+    private Path sourcePath(Map<String, Object> sourceConfig) {
+        Object path = sourceConfig.get("path");
+        if (path == null) {
+            throw new RuntimeException("sourceConfig.path is required for file sources");
+        }
+        return Paths.get(path.toString());
+    }
+
     /**
      * Serialize an object to JSON string
      */
@@ -446,16 +716,139 @@ public class DataIntegrationService {
     /**
      * Deserialize from JSON string
      */
-    private <T> T deserializeFromJson(String json, Class<T> type) {
+    private <T> T deserializeFromJson(String json, TypeReference<T> type) {
         try {
             return objectMapper.readValue(json, type);
         } catch (Exception e) {
             log.error("Error deserializing from JSON", e);
+            throw new RuntimeException("Error deserializing from JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the records of one slice on {@code workers} parallel lanes.
+     * <p>
+     * The reader routes each record to a lane by partition, so all records for one customer id go to
+     * the same lane; a lane writes one chunk at a time, in the order its chunks filled up, so MERGE and
+     * REPLACE still apply them in source order. Lanes share a pool with one thread per lane.
+     * <p>
+     * Chunks commit in their own transactions, so the checkpoint cannot commit with them. Instead the
+     * reader stops every {@code chunkSize * workers} records at a barrier: it hands over the partial
+     * chunks, waits until every lane has written everything it was given and then checkpoints. This also
+     * bounds the records held in memory. After a crash the records since the last barrier may be written
+     * a second time.
+     */
+    private final class PartitionedChunkWriter {
+        private final IntegrationJob job;
+        private final IntegrationStrategy strategy;
+        private final int chunkSize;
+        private final ForkJoinPool pool;
+        private final List<List<Customer>> chunks;
+        private final List<CompletableFuture<Void>> lanes;
+        private final AtomicLong written = new AtomicLong();
+        private long routed;
+
+        private PartitionedChunkWriter(IntegrationJob job, IntegrationStrategy strategy, int workers) {
+            this.job = job;
+            this.strategy = strategy;
+            this.chunkSize = integrationProperties.getChunkSize();
+            this.pool = new ForkJoinPool(workers);
+            this.chunks = new ArrayList<>(workers);
+            this.lanes = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                chunks.add(new ArrayList<>(chunkSize));
+                lanes.add(CompletableFuture.completedFuture(null));
+            }
+        }
+
+        private void add(int lane, Customer customer) {
+            routed++;
+            List<Customer> chunk = chunks.get(lane);
+            chunk.add(customer);
+            if (chunk.size() >= chunkSize) {
+                submit(lane);
+            }
+        }
+
+        private void submit(int lane) {
+            List<Customer> chunk = chunks.set(lane, new ArrayList<>(chunkSize));
+            lanes.set(lane, lanes.get(lane).thenRunAsync(() -> {
+                int size = chunk.size();
+                int n = flushChunk(chunk, strategy, none -> { });
+                written.addAndGet(n);
+                progressTracker.increment(job.getIntegrationId(), size, n);
+            }, pool));
+        }
+
+        /**
+         * Barrier: write everything routed so far, then checkpoint {@code consumed} source records.
+         *
+         * @param owned records of the slice read since the last barrier, including those that failed to map
+         */
+        private void checkpoint(RecordSlice slice, long consumed, long owned) {
+            for (int lane = 0; lane < chunks.size(); lane++) {
+                if (!chunks.get(lane).isEmpty()) {
+                    submit(lane);
+                }
+            }
             try {
-                return type.newInstance();
-            } catch (Exception ex) {
-                throw new RuntimeException("Error creating new instance", ex);
+                CompletableFuture.allOf(lanes.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
             }
+            // Lanes report the records they write; the ones that failed to map are reported here
+            if (owned > routed) {
+                progressTracker.increment(job.getIntegrationId(), owned - routed, 0);
+            }
+            routed = 0;
+            slice.success += written.getAndSet(0);
+            transactionTemplate.executeWithoutResult(tx ->
+                    slice.checkpoint.write(consumed, slice.processed, slice.success));
+            publishProgress(job);
         }
+
+        private void close() {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The records one run of the record loop is responsible for: partition {@code index} of {@code count}
+     * (the whole source when count is 1), starting after {@code offset} consumed source records.
+     */
+    private static final class RecordSlice {
+        private final int index;
+        private final int count;
+        private final long offset;
+        private final SliceCheckpoint checkpoint;
+        private long processed;
+        private long success;
+
+        private RecordSlice(int index, int count, long offset, long processed, long success, SliceCheckpoint checkpoint) {
+            this.index = index;
+            this.count = count;
+            this.offset = offset;
+            this.processed = processed;
+            this.success = success;
+            this.checkpoint = checkpoint;
+        }
+
+        /**
+         * Checkpoint written in the chunk's transaction: {@code consumed} source records read, the slice's
+         * records so far, and its successes before this chunk plus what the chunk writes
+         */
+        private IntConsumer checkpointAt(long consumed) {
+            long processedSoFar = processed;
+            long successBefore = success;
+            return written -> checkpoint.write(consumed, processedSoFar, successBefore + written);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SliceCheckpoint {
+        void write(long consumed, long processed, long success);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.cache.CustomerCache;
+import com.example.cdcdemo.mapper.CustomerMapper;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.example.cdcdemo.publisher.ChangeEventPublisher;
+import com.example.cdcdemo.publisher.ChangedFields;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes integration records to the customers table one chunk at a time.
+ * <p>
+ * Each chunk is a single transaction: one locking {@code IN (...) FOR UPDATE} lookup for the ids in
+ * the chunk, one multi-row upsert for rows that carry an id and one multi-row insert for rows that don't.
+ * The lock keeps concurrent writers of the same id apart, so the version each row is written with (the
+ * locked version plus one, or 1 for a new row) is exactly the version its change event carries.
+ * Rows whose values would not change are skipped entirely. Cache entries for the written ids are
+ * evicted in one pipelined call after commit, and the chunk's change events, with row versions and,
+ * for updates, the before image and changed fields, are handed to the publisher together.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerBatchWriter {
+
+    private final CustomerMapper customerMapper;
+    private final ChangeEventPublisher eventPublisher;
+    private final CustomerCache customerCache;
+
+    /**
+     * Write one chunk using the given integration strategy.
+     *
+     * @return number of source records written
+     */
+    @Transactional
+    public int writeChunk(List<Customer> chunk, IntegrationStrategy strategy) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        // Collapse repeated ids so the chunk behaves like applying the records in order
+        Map<Long, Customer> keyed = new LinkedHashMap<>();
+        List<Customer> inserts = new ArrayList<>();
+        for (Customer customer : chunk) {
+            if (strategy == IntegrationStrategy.APPEND) {
+                customer.setId(null);
+            }
+            if (customer.getId() == null) {
+                inserts.add(customer);
+            } else if (strategy == IntegrationStrategy.MERGE && keyed.containsKey(customer.getId())) {
+                mergeInto(keyed.get(customer.getId()), customer);
+            } else {
+                keyed.put(customer.getId(), customer);
+            }
+        }
+
+        Map<Long, Customer> existing = new HashMap<>();
+        if (!keyed.isEmpty()) {
+            for (Customer row : customerMapper.selectBatchIdsForUpdate(keyed.keySet())) {
+                existing.put(row.getId(), row);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Customer> upserts = new ArrayList<>(keyed.size());
+        List<Long> upsertIds = new ArrayList<>(keyed.size());
+        List<DataChangeEvent> events = new ArrayList<>(keyed.size() + inserts.size());
+        for (Customer customer : keyed.values()) {
+            Customer current = existing.get(customer.getId());
+            Customer after = customer;
+            if (current == null) {
+                after.setVersion(1L);
+                events.add(event("CREATE", after, now));
+            } else {
+                if (strategy == IntegrationStrategy.MERGE) {
+                    // Apply non-null values from the source record onto a copy of the stored row
+                    after = copyOf(current);
+                    mergeInto(after, customer);
+                }
+                List<String> changedFields = ChangedFields.of(current, after);
+                if (changedFields.isEmpty()) {
+                    continue;
+                }
+                after.setVersion(current.getVersion() + 1);
+                DataChangeEvent event = event("UPDATE", after, now);
+                event.setBefore(current);
+                event.setChangedFields(changedFields);
+                events.add(event);
+            }
+            upserts.add(after);
+            upsertIds.add(after.getId());
+        }
+
+        if (!upserts.isEmpty()) {
+            customerMapper.upsertBatch(upserts);
+        }
+        if (!inserts.isEmpty()) {
+            customerMapper.insertBatch(inserts);
+        }
+
+        customerCache.evictAfterCommit(upsertIds);
+
+        for (Customer customer : inserts) {
+            customer.setVersion(1L);
+            events.add(event("CREATE", customer, now));
+        }
+        eventPublisher.publishEvents(events);
+
+        log.debug("Wrote chunk of {} records ({} upserts, {} inserts, {} unchanged)",
+                chunk.size(), upserts.size(), inserts.size(), keyed.size() - upserts.size());
+        return chunk.size();
+    }
+
+    /**
+     * Delete one chunk of ids in a single transaction. Ids that don't exist are ignored.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    public int deleteChunk(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Locked so the DELETE events carry the version of the rows actually removed
+        List<Customer> existing = customerMapper.selectBatchIdsForUpdate(ids);
+        if (existing.isEmpty()) {
+            return 0;
+        }
+        List<Long> existingIds = new ArrayList<>(existing.size());
+        for (Customer customer : existing) {
+            existingIds.add(customer.getId());
+        }
+        customerMapper.deleteBatchIds(existingIds);
+
+        customerCache.evictAfterCommit(existingIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DataChangeEvent> events = new ArrayList<>(existing.size());
+        for (Customer customer : existing) {
+            events.add(event("DELETE", customer, now));
+        }
+        eventPublisher.publishEvents(events);
+
+        log.debug("Deleted chunk of {} ids ({} existed)", ids.size(), existing.size());
+        return existing.size();
+    }
+
+    private static DataChangeEvent event(String operation, Customer customer, LocalDateTime now) {
+        DataChangeEvent event = new DataChangeEvent("customer", customer.getId(), operation, customer, now);
+        event.setVersion(customer.getVersion());
+        return event;
+    }
+
+    private static Customer copyOf(Customer customer) {
+        return new Customer(customer.getId(), customer.getName(), customer.getEmail(), customer.getPhone(),
+                customer.getAddress(), customer.getVersion());
+    }
+
+    private void mergeInto(Customer target, Customer source) {
+        if (source.getName() != null) {
+            target.setName(source.getName());
+        }
+        if (source.getEmail() != null) {
+            target.setEmail(source.getEmail());
+        }
+        if (source.getPhone() != null) {
+            target.setPhone(source.getPhone());
+        }
+        if (source.getAddress() != null) {
+            target.setAddress(source.getAddress());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.model.Customer;
+
+/**
+ * Target fields of {@link Customer} that integration sources can be mapped onto,
+ * each with its value coercion resolved up front.
+ */
+public enum CustomerField {
+
+    ID {
+        @Override
+        public void assign(Customer customer, Object value) {
+            if (value instanceof Long) {
+                customer.setId((Long) value);
+            } else if (value instanceof Integer || value instanceof Short) {
+                customer.setId(((Number) value).longValue());
+            } else {
+                customer.setId(Long.valueOf(value.toString().trim()));
+            }
+        }
+    },
+    NAME {
+        @Override
+        public void assign(Customer customer, Object value) {
+            customer.setName(asString(value));
+        }
+    },
+    EMAIL {
+        @Override
+        public void assign(Customer customer, Object value) {
+            customer.setEmail(asString(value));
+        }
+    },
+    PHONE {
+        @Override
+        public void assign(Customer customer, Object value) {
+            customer.setPhone(asString(value));
+        }
+    },
+    ADDRESS {
+        @Override
+        public void assign(Customer customer, Object value) {
+            customer.setAddress(asString(value));
+        }
+    };
+
+    /**
+     * Set a non-null source value on the customer.
+     *
+     * @throws NumberFormatException if an id value is not numeric
+     */
+    public abstract void assign(Customer customer, Object value);
+
+    /**
+     * Resolve a target field name from the field mappings (case-insensitive), or {@code null} if unknown.
+     */
+    public static CustomerField fromTargetName(String targetField) {
+        for (CustomerField field : values()) {
+            if (field.name().equalsIgnoreCase(targetField)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static String asString(Object value) {
+        return value instanceof String ? (String) value : value.toString();
+    }
+}
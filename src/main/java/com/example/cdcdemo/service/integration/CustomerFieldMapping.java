@@ -0,0 +1,77 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.model.Customer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field mappings of an integration job compiled once into parallel arrays of
+ * source keys and {@link CustomerField} setters.
+ * <p>
+ * Mapping a record is then a straight loop of map lookups and setter calls: no entry-set
+ * iteration, no lower-casing and no string switch per record. Null and absent source values
+ * are skipped, which leaves the field null on the new customer.
+ */
+@Slf4j
+public final class CustomerFieldMapping {
+
+    private final String[] sourceFields;
+    private final CustomerField[] targets;
+
+    private CustomerFieldMapping(String[] sourceFields, CustomerField[] targets) {
+        this.sourceFields = sourceFields;
+        this.targets = targets;
+    }
+
+    /**
+     * Compile source field → target field mappings. Unknown target fields are logged once and dropped.
+     */
+    public static CustomerFieldMapping compile(Map<String, String> fieldMappings) {
+        List<String> sources = new ArrayList<>(fieldMappings.size());
+        List<CustomerField> targets = new ArrayList<>(fieldMappings.size());
+        for (Map.Entry<String, String> mapping : fieldMappings.entrySet()) {
+            CustomerField target = CustomerField.fromTargetName(mapping.getValue());
+            if (target == null) {
+                log.warn("Unknown target field: {}", mapping.getValue());
+                continue;
+            }
+            sources.add(mapping.getKey());
+            targets.add(target);
+        }
+        return new CustomerFieldMapping(sources.toArray(new String[0]), targets.toArray(new CustomerField[0]));
+    }
+
+    /**
+     * Map one source record onto a new customer.
+     *
+     * @throws NumberFormatException if a value mapped to id is not numeric
+     */
+    public Customer map(Map<String, Object> sourceRecord) {
+        Customer customer = new Customer();
+        for (int i = 0; i < sourceFields.length; i++) {
+            Object value = sourceRecord.get(sourceFields[i]);
+            if (value != null) {
+                targets[i].assign(customer, value);
+            }
+        }
+        return customer;
+    }
+
+    /**
+     * Resolve the target of each column of a header row; {@code null} for unmapped columns.
+     */
+    public CustomerField[] targetsForColumns(String[] header) {
+        CustomerField[] columns = new CustomerField[header.length];
+        for (int column = 0; column < header.length; column++) {
+            for (int i = 0; i < sourceFields.length; i++) {
+                if (sourceFields[i].equals(header[column])) {
+                    columns[column] = targets[i];
+                }
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.service.DataIntegrationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Pulls integration work from the shared tables onto this node's worker pool.
+ * <p>
+ * Every {@code cdc.integration.scheduler.poll-interval} the node claims as many jobs and job shards as
+ * it has free workers, so busy nodes take nothing and idle nodes take more. Jobs and shards orphaned by
+ * a dead node become claimable again once their lease expires, so this is also how interrupted work
+ * is recovered; it resumes from the last checkpoint. A failed claim never stops the scheduler.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IntegrationJobDispatcher {
+
+    private final IntegrationJobEngine jobEngine;
+    private final IntegrationLeaseManager leaseManager;
+    private final DataIntegrationService integrationService;
+
+    @Scheduled(fixedDelayString = "#{@integrationProperties.scheduler.pollInterval.toMillis()}")
+    public void dispatch() {
+        int free = jobEngine.getFreeSlots();
+        if (free == 0) {
+            return;
+        }
+        try {
+            List<String> jobs = leaseManager.claimJobs(free);
+            for (String integrationId : jobs) {
+                submit(integrationId, () -> integrationService.processIntegration(integrationId),
+                        () -> leaseManager.release(integrationId));
+            }
+            free -= jobs.size();
+            if (free > 0) {
+                for (Long shardId : leaseManager.claimShards(free)) {
+                    submit("shard " + shardId, () -> integrationService.processShard(shardId),
+                            () -> leaseManager.releaseShard(shardId));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to claim integration work: {}", e.getMessage());
+        }
+    }
+
+    private void submit(String name, Runnable work, Runnable release) {
+        try {
+            jobEngine.submit(name, work);
+        } catch (RejectedExecutionException e) {
+            // Another node (or the next poll) picks it up
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.cdcdemo.service.integration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs integration jobs on a fixed worker pool with a bounded wait queue.
+ * Jobs are admitted while the queue has room and rejected once it is full;
+ * {@link #getFreeSlots()} tells the dispatcher how much work to claim.
+ */
+@Component
+@Slf4j
+public class IntegrationJobEngine {
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public IntegrationJobEngine(@Qualifier("integrationJobExecutor") ThreadPoolTaskExecutor executor,
+                                MeterRegistry meterRegistry) {
+        this.executor = executor;
+
+        Gauge.builder("integration.jobs.queued", this, IntegrationJobEngine::getQueueDepth)
+                .description("Integration jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("integration.jobs.queue.capacity", this, IntegrationJobEngine::getQueueCapacity)
+                .description("Maximum number of waiting integration jobs")
+                .register(meterRegistry);
+        Gauge.builder("integration.workers.active", this, IntegrationJobEngine::getActiveWorkers)
+                .description("Workers currently running an integration job")
+                .register(meterRegistry);
+        Gauge.builder("integration.workers.max", this, IntegrationJobEngine::getMaxWorkers)
+                .description("Configured integration worker count")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a job for execution.
+     *
+     * @throws RejectedExecutionException if the wait queue is full
+     */
+    public void submit(String integrationId, Runnable job) {
+        try {
+            executor.execute(job);
+            log.debug("Admitted integration job {} (queued: {}, active: {})",
+                    integrationId, getQueueDepth(), getActiveWorkers());
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejected integration job {}: queue is full ({} waiting)", integrationId, getQueueDepth());
+            throw e;
+        }
+    }
+
+    /**
+     * Jobs this node can start right now without queueing behind others.
+     */
+    public int getFreeSlots() {
+        return Math.max(0, getMaxWorkers() - getActiveWorkers() - getQueueDepth());
+    }
+
+    public int getQueueDepth() {
+        return executor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return executor.getQueueCapacity();
+    }
+
+    public int getActiveWorkers() {
+        return executor.getActiveCount();
+    }
+
+    public int getMaxWorkers() {
+        return executor.getMaxPoolSize();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.cdcdemo.service.integration;
+
+/**
+ * Thrown when a node tries to checkpoint a job whose lease another node has taken over.
+ * The job must stop without touching its status; the new owner carries on from the last checkpoint.
+ */
+public class IntegrationLeaseLostException extends RuntimeException {
+
+    public IntegrationLeaseLostException(String integrationId) {
+        super("Lease on integration job " + integrationId + " was taken over by another node");
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.config.IntegrationProperties;
+import com.example.cdcdemo.mapper.IntegrationJobMapper;
+import com.example.cdcdemo.mapper.IntegrationJobShardMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ownership of integration jobs and job shards across nodes.
+ * <p>
+ * Work is claimed from the shared tables: unowned or expired rows are selected with
+ * {@code FOR UPDATE SKIP LOCKED} and leased to this node in the same transaction, so concurrent
+ * claimers never get the same row. A node renews the leases of everything it has queued or is running
+ * on a heartbeat. Checkpoints are only written while the lease is held, so once a dead node's lease
+ * expires and another node takes the work over, the old owner (if it was only paused) can no longer
+ * advance it.
+ */
+@Component
+@Slf4j
+public class IntegrationLeaseManager {
+
+    private final IntegrationJobMapper integrationJobMapper;
+    private final IntegrationJobShardMapper shardMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final IntegrationProperties.Recovery properties;
+    private final String nodeId;
+    private final Set<String> ownedJobs = ConcurrentHashMap.newKeySet();
+    private final Set<Long> ownedShards = ConcurrentHashMap.newKeySet();
+
+    public IntegrationLeaseManager(IntegrationJobMapper integrationJobMapper, IntegrationJobShardMapper shardMapper,
+                                   TransactionTemplate transactionTemplate, IntegrationProperties integrationProperties) {
+        this.integrationJobMapper = integrationJobMapper;
+        this.shardMapper = shardMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = integrationProperties.getRecovery();
+        // pid@host plus a random suffix, so a restarted process never mistakes an old lease for its own
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Lease up to {@code limit} claimable jobs (new, or orphaned by a dead node) to this node.
+     */
+    public List<String> claimJobs(int limit) {
+        List<String> claimed = transactionTemplate.execute(status -> {
+            List<String> ids = integrationJobMapper.selectClaimable(limit);
+            for (String id : ids) {
+                integrationJobMapper.acquireLease(id, nodeId, leaseSeconds());
+            }
+            return ids;
+        });
+        if (claimed == null) {
+            return Collections.emptyList();
+        }
+        ownedJobs.addAll(claimed);
+        return claimed;
+    }
+
+    /**
+     * Lease up to {@code limit} claimable job shards to this node.
+     */
+    public List<Long> claimShards(int limit) {
+        List<Long> claimed = transactionTemplate.execute(status -> {
+            List<Long> ids = shardMapper.selectClaimable(limit);
+            for (Long id : ids) {
+                shardMapper.acquireLease(id, nodeId, leaseSeconds());
+            }
+            return ids;
+        });
+        if (claimed == null) {
+            return Collections.emptyList();
+        }
+        ownedShards.addAll(claimed);
+        return claimed;
+    }
+
+    /**
+     * Take or extend the lease on a job.
+     *
+     * @return {@code false} if the job is finished or another node holds a live lease on it
+     */
+    public boolean acquire(String integrationId) {
+        if (integrationJobMapper.acquireLease(integrationId, nodeId, leaseSeconds()) == 0) {
+            ownedJobs.remove(integrationId);
+            return false;
+        }
+        ownedJobs.add(integrationId);
+        return true;
+    }
+
+    /**
+     * Take or extend the lease on a job shard and mark it PROCESSING.
+     *
+     * @return {@code false} if the shard is finished or another node holds a live lease on it
+     */
+    public boolean acquireShard(Long shardId) {
+        if (shardMapper.acquireLease(shardId, nodeId, leaseSeconds()) == 0) {
+            ownedShards.remove(shardId);
+            return false;
+        }
+        ownedShards.add(shardId);
+        return true;
+    }
+
+    public void release(String integrationId) {
+        ownedJobs.remove(integrationId);
+        try {
+            integrationJobMapper.releaseLease(integrationId, nodeId);
+        } catch (RuntimeException e) {
+            // The lease simply expires
+            log.warn("Failed to release lease on integration job {}: {}", integrationId, e.getMessage());
+        }
+    }
+
+    public void releaseShard(Long shardId) {
+        ownedShards.remove(shardId);
+        try {
+            shardMapper.releaseLease(shardId, nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release lease on integration job shard {}: {}", shardId, e.getMessage());
+        }
+    }
+
+    /**
+     * Record that the first {@code offset} source records are written, {@code success} of them successfully.
+     * Called inside the transaction that wrote the last chunk, so the checkpoint commits with it; a resumed
+     * job continues from these counts, not from the live counters the progress flush copies to the row.
+     *
+     * @throws IntegrationLeaseLostException if another node owns the job now
+     */
+    public void checkpoint(String integrationId, long offset, long success) {
+        if (integrationJobMapper.checkpoint(integrationId, nodeId, offset, success) == 0) {
+            ownedJobs.remove(integrationId);
+            throw new IntegrationLeaseLostException(integrationId);
+        }
+    }
+
+    /**
+     * Shard checkpoint: {@code offset} source records consumed, {@code processed} of them belonging to the shard.
+     *
+     * @throws IntegrationLeaseLostException if another node owns the shard now
+     */
+    public void checkpointShard(Long shardId, long offset, long processed, long success) {
+        if (shardMapper.checkpoint(shardId, nodeId, offset, processed, success) == 0) {
+            ownedShards.remove(shardId);
+            throw new IntegrationLeaseLostException("shard " + shardId);
+        }
+    }
+
+    /**
+     * Write the final state of a shard.
+     *
+     * @throws IntegrationLeaseLostException if another node owns the shard now
+     */
+    public void finishShard(Long shardId, String status, long processed, long success, String errorMessage) {
+        if (shardMapper.finish(shardId, nodeId, status, processed, success, errorMessage) == 0) {
+            ownedShards.remove(shardId);
+            throw new IntegrationLeaseLostException("shard " + shardId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "#{@integrationProperties.recovery.heartbeatInterval.toMillis()}")
+    public void heartbeat() {
+        List<String> jobs = new ArrayList<>(ownedJobs);
+        List<Long> shards = new ArrayList<>(ownedShards);
+        try {
+            int renewed = jobs.isEmpty() ? 0 : integrationJobMapper.renewLeases(jobs, nodeId, leaseSeconds());
+            renewed += shards.isEmpty() ? 0 : shardMapper.renewLeases(shards, nodeId, leaseSeconds());
+            if (renewed < jobs.size() + shards.size()) {
+                log.warn("Renewed {} of {} integration leases; the rest were taken over or finished",
+                        renewed, jobs.size() + shards.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew {} integration leases: {}", jobs.size() + shards.size(), e.getMessage());
+        }
+    }
+
+    private long leaseSeconds() {
+        return Math.max(1, properties.getLeaseDuration().getSeconds());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.model.Customer;
+
+/**
+ * Assigns source records to partitions of an integration job.
+ * <p>
+ * Records are keyed by customer id, so every record for one id lands in the same partition and is
+ * applied in source order, which MERGE and REPLACE depend on. Records without a usable id (APPEND
+ * jobs, new rows, rows that failed to map) are spread by their position in the source instead.
+ */
+public final class IntegrationPartitioner {
+
+    private IntegrationPartitioner() {
+    }
+
+    /**
+     * @param customer    the mapped record, or {@code null} if it failed to map
+     * @param recordIndex zero-based position of the record in the source
+     */
+    public static int partition(Customer customer, long recordIndex, IntegrationStrategy strategy, int partitions) {
+        if (partitions == 1) {
+            return 0;
+        }
+        if (customer != null && customer.getId() != null && strategy != IntegrationStrategy.APPEND) {
+            long hash = customer.getId() * 0x9E3779B97F4A7C15L;
+            return Math.floorMod((int) (hash ^ (hash >>> 32)), partitions);
+        }
+        return (int) Math.floorMod(recordIndex, (long) partitions);
+    }
+}
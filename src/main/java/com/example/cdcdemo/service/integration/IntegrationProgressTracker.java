@@ -0,0 +1,203 @@
+package com.example.cdcdemo.service.integration;
+
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.example.cdcdemo.cache.RedisUnitOfWork;
+import com.example.cdcdemo.mapper.IntegrationJobMapper;
+import com.example.cdcdemo.model.integration.IntegrationJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live record counters for running integration jobs.
+ * <p>
+ * Each running job has a Redis hash {@code integration:progress:<id>} with {@code processed},
+ * {@code success} and {@code failed} fields, advanced with {@code HINCRBY} after every chunk so
+ * concurrent writers of the same job never lose an update. Jobs running on this node are copied to
+ * {@code integration_jobs} every {@code cdc.integration.progress-flush-interval}, not per record.
+ * Those copies are for display only: they are not in step with the job's checkpoint, which keeps its
+ * own success count for resuming.
+ * The hash is removed when the job finishes and the final counts are written with the job status.
+ */
+@Component
+@Slf4j
+public class IntegrationProgressTracker {
+
+    private static final String PROGRESS_KEY = "integration:progress:";
+    private static final String PROCESSED = "processed";
+    private static final String SUCCESS = "success";
+    private static final String FAILED = "failed";
+    private static final Duration PROGRESS_TTL = Duration.ofHours(24);
+
+    private final StringRedisTemplate redisTemplate;
+    private final IntegrationJobMapper integrationJobMapper;
+    private final RedisUnitOfWork redisUnitOfWork;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public IntegrationProgressTracker(StringRedisTemplate redisTemplate, IntegrationJobMapper integrationJobMapper,
+                                      RedisUnitOfWork redisUnitOfWork) {
+        this.redisTemplate = redisTemplate;
+        this.integrationJobMapper = integrationJobMapper;
+        this.redisUnitOfWork = redisUnitOfWork;
+    }
+
+    /**
+     * Reset the counters of a job that is about to run on this node.
+     */
+    public void start(String integrationId) {
+        drop(integrationId);
+        running.add(integrationId);
+    }
+
+    /**
+     * Track a job whose counters are shared with other workers (one shard of it runs here) without resetting them.
+     */
+    public void join(String integrationId) {
+        running.add(integrationId);
+    }
+
+    /**
+     * Stop flushing a shared job from this node; the counters stay for the other workers.
+     */
+    public void leave(String integrationId) {
+        running.remove(integrationId);
+    }
+
+    /**
+     * Add the records handled since the last call; everything processed but not written counts as failed.
+     */
+    public void increment(String integrationId, long processed, long success) {
+        if (processed == 0 && success == 0) {
+            return;
+        }
+        String key = PROGRESS_KEY + integrationId;
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                HashOperations<String, String, String> hash = ((RedisOperations<String, String>) operations).opsForHash();
+                hash.increment(key, PROCESSED, processed);
+                hash.increment(key, SUCCESS, success);
+                hash.increment(key, FAILED, processed - success);
+                ((RedisOperations<String, String>) operations).expire(key,
+                        redisUnitOfWork.jitter(PROGRESS_TTL).toMillis(), TimeUnit.MILLISECONDS);
+                return null;
+            }
+        });
+    }
+
+    // UNLINK (or DEL) of the counters hash
+    private void drop(String integrationId) {
+        byte[] key = (PROGRESS_KEY + integrationId).getBytes(StandardCharsets.UTF_8);
+        redisUnitOfWork.execute(connection -> redisUnitOfWork.delete(connection, key));
+    }
+
+    /**
+     * Current counters of a running job, or {@code null} if it has none in Redis.
+     */
+    public Progress current(String integrationId) {
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        return Progress.of(hash.entries(PROGRESS_KEY + integrationId));
+    }
+
+    /**
+     * Stop tracking a job and drop its counters.
+     *
+     * @return the counters at the time the job finished, or {@code null} if it recorded none
+     */
+    public synchronized Progress finish(String integrationId) {
+        running.remove(integrationId);
+        Progress progress = current(integrationId);
+        drop(integrationId);
+        return progress;
+    }
+
+    /**
+     * Copy the counters of the jobs running on this node to the database.
+     */
+    @Scheduled(fixedDelayString = "#{@integrationProperties.progressFlushInterval.toMillis()}")
+    public synchronized void flush() {
+        if (running.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(running);
+        try {
+            List<Object> counters = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    for (String id : ids) {
+                        ((RedisOperations<String, String>) operations).opsForHash().entries(PROGRESS_KEY + id);
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < ids.size(); i++) {
+                @SuppressWarnings("unchecked")
+                Progress progress = Progress.of((Map<Object, Object>) counters.get(i));
+                if (progress != null) {
+                    integrationJobMapper.update(null, new UpdateWrapper<IntegrationJob>()
+                            .set("records_processed", progress.getProcessed())
+                            .set("records_success", progress.getSuccess())
+                            .set("records_failed", progress.getFailed())
+                            .eq("integration_id", ids.get(i)));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush integration progress for {} jobs: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Snapshot of a job's counters.
+     */
+    public static final class Progress {
+        private final long processed;
+        private final long success;
+        private final long failed;
+
+        private Progress(long processed, long success, long failed) {
+            this.processed = processed;
+            this.success = success;
+            this.failed = failed;
+        }
+
+        static Progress of(Map<?, ?> hash) {
+            if (hash == null || hash.isEmpty()) {
+                return null;
+            }
+            return new Progress(field(hash, PROCESSED), field(hash, SUCCESS), field(hash, FAILED));
+        }
+
+        private static long field(Map<?, ?> hash, String name) {
+            Object value = hash.get(name);
+            return value == null ? 0L : Long.parseLong(value.toString());
+        }
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        public long getSuccess() {
+            return success;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.config.IntegrationProperties;
+import com.example.cdcdemo.model.integration.IntegrationStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Pushes integration job status changes to SSE streams and long polls on every node.
+ * <p>
+ * The job that changes state publishes the new {@link IntegrationStatus} on a Redis channel; each node
+ * delivers what it receives to its own subscribers, so a client sees updates no matter which node runs
+ * the job. Subscribers are either one job's stream, which ends when the job reaches COMPLETED or FAILED,
+ * or the stream of all jobs. Pub/sub is best effort: a client that reconnects gets the current status first.
+ */
+@Component
+@Slf4j
+public class IntegrationStatusBroadcaster implements MessageListener {
+
+    private static final String ALL_JOBS = "*";
+    private static final String EVENT_NAME = "status";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final IntegrationProperties.Events properties;
+    private final Map<String, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Map<String, Set<DeferredResult<IntegrationStatus>>> polls = new ConcurrentHashMap<>();
+
+    public IntegrationStatusBroadcaster(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                        IntegrationProperties integrationProperties,
+                                        RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = integrationProperties.getEvents();
+        listenerContainer.addMessageListener(this, new ChannelTopic(properties.getChannel()));
+    }
+
+    /**
+     * Broadcast a status change to every node. Failures are logged, never thrown into the job.
+     */
+    public void publish(IntegrationStatus status) {
+        try {
+            redisTemplate.convertAndSend(properties.getChannel(), objectMapper.writeValueAsString(status));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to broadcast status of integration job {}: {}", status.getIntegrationId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Same as {@link #publish(IntegrationStatus)} but on a connection the caller is already pipelining.
+     */
+    public void publish(RedisConnection connection, IntegrationStatus status) {
+        try {
+            connection.publish(properties.getChannel().getBytes(StandardCharsets.UTF_8), objectMapper.writeValueAsBytes(status));
+        } catch (IOException e) {
+            log.warn("Failed to broadcast status of integration job {}: {}", status.getIntegrationId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Open an SSE stream for one job, starting with its current status.
+     */
+    public SseEmitter subscribe(IntegrationStatus current) {
+        SseEmitter emitter = register(current.getIntegrationId());
+        if (!send(current.getIntegrationId(), emitter, current) || isFinished(current)) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Open an SSE stream of status changes of all jobs.
+     */
+    public SseEmitter subscribeAll() {
+        return register(ALL_JOBS);
+    }
+
+    /**
+     * Wait for the next status change of a job; on timeout the result is the job's status at that time.
+     * A finished job answers right away.
+     */
+    public DeferredResult<IntegrationStatus> poll(IntegrationStatus current, Duration timeout,
+                                                  Supplier<IntegrationStatus> currentStatus) {
+        Duration wait = timeout.compareTo(properties.getMaxPollTimeout()) > 0 ? properties.getMaxPollTimeout() : timeout;
+        DeferredResult<IntegrationStatus> result = new DeferredResult<>(wait.toMillis());
+        if (isFinished(current)) {
+            result.setResult(current);
+            return result;
+        }
+        String integrationId = current.getIntegrationId();
+        Set<DeferredResult<IntegrationStatus>> waiting = polls.computeIfAbsent(integrationId, k -> ConcurrentHashMap.newKeySet());
+        waiting.add(result);
+        result.onTimeout(() -> result.setResult(currentStatus.get()));
+        result.onCompletion(() -> remove(polls, integrationId, result));
+        return result;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        IntegrationStatus status;
+        try {
+            status = objectMapper.readValue(message.getBody(), IntegrationStatus.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed integration status message: {}", e.getMessage());
+            return;
+        }
+        String integrationId = status.getIntegrationId();
+
+        Set<DeferredResult<IntegrationStatus>> waiting = polls.remove(integrationId);
+        if (waiting != null) {
+            for (DeferredResult<IntegrationStatus> result : waiting) {
+                result.setResult(status);
+            }
+        }
+
+        deliver(integrationId, status, isFinished(status));
+        deliver(ALL_JOBS, status, false);
+    }
+
+    private void deliver(String key, IntegrationStatus status, boolean complete) {
+        Set<SseEmitter> subscribers = emitters.get(key);
+        if (subscribers == null) {
+            return;
+        }
+        for (SseEmitter emitter : subscribers) {
+            if (send(key, emitter, status) && complete) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private SseEmitter register(String key) {
+        SseEmitter emitter = new SseEmitter(properties.getSseTimeout().toMillis());
+        emitters.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> remove(emitters, key, emitter));
+        emitter.onTimeout(() -> remove(emitters, key, emitter));
+        emitter.onError(e -> remove(emitters, key, emitter));
+        return emitter;
+    }
+
+    private boolean send(String key, SseEmitter emitter, IntegrationStatus status) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .id(status.getIntegrationId())
+                    .data(status, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; drop the stream
+            remove(emitters, key, emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static <T> void remove(Map<String, Set<T>> subscribers, String key, T subscriber) {
+        subscribers.computeIfPresent(key, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static boolean isFinished(IntegrationStatus status) {
+        return "COMPLETED".equals(status.getStatus()) || "FAILED".equals(status.getStatus());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.cdcdemo.service.integration;
+
+/**
+ * How integration records are applied to existing rows.
+ */
+public enum IntegrationStrategy {
+
+    /**
+     * Update existing rows with the non-null values of the record, create missing ones.
+     */
+    MERGE,
+
+    /**
+     * Overwrite existing rows with the record, create missing ones.
+     */
+    REPLACE,
+
+    /**
+     * Always create a new row, ignoring any id in the record.
+     */
+    APPEND;
+
+    public static IntegrationStrategy parse(String strategy) {
+        if (strategy != null) {
+            for (IntegrationStrategy value : values()) {
+                if (value.name().equalsIgnoreCase(strategy)) {
+                    return value;
+                }
+            }
+        }
+        throw new RuntimeException("Unsupported integration strategy: " + strategy);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.cdcdemo.service.integration.source;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams rows of a CSV file whose first row is the header.
+ * <p>
+ * Supports RFC 4180 quoting (quoted delimiters, line breaks and doubled quotes) and both
+ * {@code \n} and {@code \r\n} line endings. Empty cells are returned as {@code null} so they
+ * don't overwrite stored values on MERGE; blank lines are skipped.
+ */
+public class CsvRecordReader implements SourceRecordReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private final String[] header;
+    private final List<String> row = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    private Map<String, Object> next;
+    private boolean exhausted;
+
+    public CsvRecordReader(Reader reader, char delimiter) throws IOException {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, BUFFER_SIZE);
+        this.delimiter = delimiter;
+
+        List<String> headerRow = readRow();
+        if (headerRow == null) {
+            this.header = new String[0];
+            this.exhausted = true;
+        } else {
+            this.header = headerRow.toArray(new String[0]);
+            if (header.length > 0 && !header[0].isEmpty() && header[0].charAt(0) == '\uFEFF') {
+                header[0] = header[0].substring(1);
+            }
+            for (int i = 0; i < header.length; i++) {
+                header[i] = header[i].trim();
+            }
+        }
+    }
+
+    public String[] getHeader() {
+        return header.clone();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !exhausted) {
+            try {
+                next = readRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            exhausted = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map<String, Object> record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Map<String, Object> readRecord() throws IOException {
+        List<String> values;
+        do {
+            values = readRow();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+
+        Map<String, Object> record = new LinkedHashMap<>(header.length * 2);
+        int columns = Math.min(header.length, values.size());
+        for (int i = 0; i < columns; i++) {
+            String value = values.get(i);
+            record.put(header[i], value.isEmpty() ? null : value);
+        }
+        return record;
+    }
+
+    /**
+     * Read one logical row, or {@code null} at end of input.
+     * The returned list is reused by the next call.
+     */
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        row.clear();
+        field.setLength(0);
+        boolean inQuotes = false;
+
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in CSV input");
+                }
+                if (c == '"') {
+                    int following = reader.read();
+                    if (following != '"') {
+                        inQuotes = false;
+                        c = following;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == -1 || c == '\n') {
+                row.add(field.toString());
+                return row;
+            } else if (c == delimiter) {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.cdcdemo.service.integration.source;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the objects of a top-level JSON array with Jackson's streaming parser.
+ * Only the element currently being read is held in memory.
+ */
+public class JsonArrayRecordReader implements SourceRecordReader {
+
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    private final JsonParser parser;
+    private Map<String, Object> next;
+    private boolean exhausted;
+
+    /**
+     * @param parser a parser with an {@code ObjectCodec}, e.g. from {@code objectMapper.getFactory()}
+     */
+    public JsonArrayRecordReader(JsonParser parser) throws IOException {
+        this.parser = parser;
+        JsonToken first = parser.nextToken();
+        if (first == null) {
+            exhausted = true;
+        } else if (first != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array of records but found " + first);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !exhausted) {
+            try {
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_OBJECT) {
+                    next = parser.readValueAs(RECORD_TYPE);
+                } else if (token == JsonToken.END_ARRAY || token == null) {
+                    exhausted = true;
+                } else {
+                    throw new IOException("Expected a JSON object at " + parser.getCurrentLocation() + " but found " + token);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map<String, Object> record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.cdcdemo.service.integration.source;
+
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.service.integration.CustomerField;
+import com.example.cdcdemo.service.integration.CustomerFieldMapping;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Parses a large UTF-8 CSV file straight into {@link Customer} rows on a fork-join pool.
+ * <p>
+ * The file is memory-mapped with {@link FileChannel#map}; the data section is split at line
+ * boundaries into ranges that are parsed in parallel. Each range hands its rows to the chunk
+ * consumer in lists of {@code chunkSize}, so the consumer is called concurrently from pool
+ * threads and chunks from different ranges arrive in no particular order.
+ * <p>
+ * Splitting relies on every record being a single line: quoted fields may contain delimiters
+ * and doubled quotes but not line breaks. Use {@link CsvRecordReader} for files that need them.
+ */
+@Slf4j
+public class MappedCsvCustomerReader {
+
+    /**
+     * Ranges below this size are not split further.
+     */
+    private static final long MIN_SPLIT_BYTES = 1024 * 1024;
+
+    /**
+     * A single mapping cannot exceed 2 GB.
+     */
+    private static final long MAX_RANGE_BYTES = Integer.MAX_VALUE;
+
+    private final Path path;
+    private final byte delimiter;
+    private final CustomerFieldMapping fieldMapping;
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public MappedCsvCustomerReader(Path path, char delimiter, CustomerFieldMapping fieldMapping) {
+        if (delimiter > 0x7F) {
+            throw new IllegalArgumentException("Memory-mapped CSV parsing needs an ASCII delimiter");
+        }
+        this.path = path;
+        this.delimiter = (byte) delimiter;
+        this.fieldMapping = fieldMapping;
+    }
+
+    /**
+     * Parse the whole file on the given pool.
+     *
+     * @return bytes of the file that were parsed
+     */
+    public long read(ForkJoinPool pool, int chunkSize, Consumer<List<Customer>> chunkConsumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return 0;
+            }
+
+            long dataStart = nextLineStart(channel, 0, size);
+            CustomerField[] columnTargets = resolveColumns(readLine(channel, 0, dataStart));
+            long splitBytes = Math.max(MIN_SPLIT_BYTES, (size - dataStart) / (pool.getParallelism() * 4L));
+
+            pool.invoke(new RangeTask(channel, dataStart, size, splitBytes, columnTargets, chunkSize, chunkConsumer));
+            log.info("Parsed {} bytes of {} into {} records ({} failed) with parallelism {}",
+                    size, path, records.sum(), failed.sum(), pool.getParallelism());
+            return size;
+        }
+    }
+
+    /**
+     * Rows parsed successfully so far.
+     */
+    public long getRecords() {
+        return records.sum();
+    }
+
+    /**
+     * Rows that could not be converted (e.g. a non-numeric id).
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    private CustomerField[] resolveColumns(String headerLine) {
+        if (!headerLine.isEmpty() && headerLine.charAt(0) == '\uFEFF') {
+            headerLine = headerLine.substring(1);
+        }
+        String[] header = headerLine.split(String.valueOf((char) delimiter), -1);
+        for (int i = 0; i < header.length; i++) {
+            header[i] = unquote(header[i].trim());
+        }
+        return fieldMapping.targetsForColumns(header);
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+
+    /**
+     * Position just after the first line break at or after {@code from}, or {@code limit}.
+     */
+    private static long nextLineStart(FileChannel channel, long from, long limit) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = from;
+        while (position < limit) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return Math.min(position + i + 1, limit);
+                }
+            }
+            position += read;
+        }
+        return limit;
+    }
+
+    private static String readLine(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        channel.read(buffer, from);
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).trim();
+    }
+
+    private class RangeTask extends RecursiveAction {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final long splitBytes;
+        private final CustomerField[] columnTargets;
+        private final int chunkSize;
+        private final Consumer<List<Customer>> chunkConsumer;
+
+        RangeTask(FileChannel channel, long start, long end, long splitBytes, CustomerField[] columnTargets,
+                  int chunkSize, Consumer<List<Customer>> chunkConsumer) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.splitBytes = splitBytes;
+            this.columnTargets = columnTargets;
+            this.chunkSize = chunkSize;
+            this.chunkConsumer = chunkConsumer;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                long length = end - start;
+                if (length > splitBytes || length > MAX_RANGE_BYTES) {
+                    long middle = nextLineStart(channel, start + length / 2, end);
+                    if (middle > start && middle < end) {
+                        invokeAll(child(start, middle), child(middle, end));
+                        return;
+                    }
+                }
+                parse(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private RangeTask child(long from, long to) {
+            return new RangeTask(channel, from, to, splitBytes, columnTargets, chunkSize, chunkConsumer);
+        }
+
+        private void parse(MappedByteBuffer buffer) {
+            byte[] line = new byte[4096];
+            int lineLength = 0;
+            List<Customer> chunk = new ArrayList<>(chunkSize);
+
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b != '\n') {
+                    if (lineLength == line.length) {
+                        byte[] grown = new byte[line.length * 2];
+                        System.arraycopy(line, 0, grown, 0, lineLength);
+                        line = grown;
+                    }
+                    line[lineLength++] = b;
+                    if (buffer.hasRemaining()) {
+                        continue;
+                    }
+                }
+                Customer customer = parseLine(line, lineLength);
+                lineLength = 0;
+                if (customer != null) {
+                    chunk.add(customer);
+                    if (chunk.size() >= chunkSize) {
+                        chunkConsumer.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkConsumer.accept(chunk);
+            }
+        }
+
+        /**
+         * Convert one line (without its line feed) into a customer; {@code null} for blank or bad lines.
+         */
+        private Customer parseLine(byte[] line, int length) {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            if (length == 0) {
+                return null;
+            }
+
+            Customer customer = new Customer();
+            int column = 0;
+            int position = 0;
+            try {
+                while (position <= length && column < columnTargets.length) {
+                    String value;
+                    int next;
+                    if (position < length && line[position] == '"') {
+                        // Quoted field: copy it in place without the surrounding and doubled quotes
+                        int out = position;
+                        int in = position + 1;
+                        while (in < length) {
+                            if (line[in] == '"') {
+                                if (in + 1 < length && line[in + 1] == '"') {
+                                    line[out++] = '"';
+                                    in += 2;
+                                    continue;
+                                }
+                                in++;
+                                break;
+                            }
+                            line[out++] = line[in++];
+                        }
+                        value = columnTargets[column] != null ? decode(line, position, out - position) : null;
+                        while (in < length && line[in] != delimiter) {
+                            in++;
+                        }
+                        next = in + 1;
+                    } else {
+                        int fieldEnd = position;
+                        while (fieldEnd < length && line[fieldEnd] != delimiter) {
+                            fieldEnd++;
+                        }
+                        value = columnTargets[column] != null ? decode(line, position, fieldEnd - position) : null;
+                        next = fieldEnd + 1;
+                    }
+                    if (value != null) {
+                        columnTargets[column].assign(customer, value);
+                    }
+                    column++;
+                    position = next;
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Skipping CSV line with invalid id: {}", new String(line, 0, length, StandardCharsets.UTF_8));
+                failed.increment();
+                return null;
+            }
+            records.increment();
+            return customer;
+        }
+
+        private String decode(byte[] bytes, int offset, int length) {
+            return length == 0 ? null : new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+    }
+}
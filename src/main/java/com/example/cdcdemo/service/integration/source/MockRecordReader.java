@@ -0,0 +1,42 @@
+package com.example.cdcdemo.service.integration.source;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Generates mock customer records on demand for testing.
+ */
+public class MockRecordReader implements SourceRecordReader {
+
+    private final int count;
+    private int index;
+
+    public MockRecordReader(int count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return index < count;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int i = index++;
+        Map<String, Object> record = new HashMap<>();
+        record.put("id", i + 100L);
+        record.put("name", "Integration User " + i);
+        record.put("email", "integration_user" + i + "@example.com");
+        record.put("phone", "555-" + String.format("%04d", i));
+        record.put("address", i + " Integration Street");
+        return record;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.cdcdemo.service.integration.source;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Cursor over the records of an integration source.
+ * <p>
+ * Records are produced one at a time as the source is parsed, so memory use does not depend on
+ * the size of the source. I/O and parse errors surface as {@link java.io.UncheckedIOException}
+ * from {@link #hasNext()} / {@link #next()}.
+ */
+public interface SourceRecordReader extends Iterator<Map<String, Object>>, Closeable {
+
+    /**
+     * Skip up to {@code records} records, e.g. the ones a resumed job already wrote.
+     *
+     * @return number of records skipped, less than requested only at end of input
+     */
+    default long skip(long records) {
+        long skipped = 0;
+        while (skipped < records && hasNext()) {
+            next();
+            skipped++;
+        }
+        return skipped;
+    }
+}
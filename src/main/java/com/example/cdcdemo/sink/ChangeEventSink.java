@@ -0,0 +1,31 @@
+package com.example.cdcdemo.sink;
+
+import com.example.cdcdemo.model.DataChangeEvent;
+
+import java.util.List;
+
+/**
+ * A downstream system that consumed change events are delivered to.
+ * <p>
+ * Every sink bean gets its own queue and writer thread from {@link SinkDispatcher}, so one slow or
+ * failing sink doesn't hold up the others. {@link #write} is only ever called from that thread, with
+ * events in consumption order. A batch that throws is retried as a whole, and events can be delivered
+ * again after a consumer redelivery, so sinks should be idempotent or tolerate duplicates; the row
+ * version on the events tells a replay from a newer change.
+ * <p>
+ * Delivery is at most once per consumed message: the consumer acknowledges a message once its events
+ * are queued, so a batch dropped after the last retry, or on a full queue, is not redelivered. See
+ * {@link SinkWorker} for the settings that make the worker retry and wait instead.
+ */
+public interface ChangeEventSink {
+
+    /**
+     * Name used in metric tags, thread names and logs.
+     */
+    String name();
+
+    /**
+     * Write one batch; throw to have it retried.
+     */
+    void write(List<DataChangeEvent> events) throws Exception;
+}
@@ -0,0 +1,186 @@
+package com.example.cdcdemo.sink;
+
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory inverted index of customers, kept up to date from their change events.
+ * <p>
+ * Name, email, phone and address are split into lower-case words; a search returns the ids of the
+ * customers that have every word of the query. Each indexed customer remembers its row version, so
+ * replayed or reordered events older than what is indexed are ignored. Deleted customers leave a
+ * small tombstone with their version for the same reason; only a CREATE, which starts the row over
+ * (such as an import replacing it), brings the id back regardless of that version.
+ */
+public class SearchIndexSink implements ChangeEventSink {
+
+    public static final String NAME = "search";
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SearchIndexSink(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void write(List<DataChangeEvent> events) {
+        lock.writeLock().lock();
+        try {
+            for (DataChangeEvent event : events) {
+                if ("customer".equals(event.getEntityType()) && event.getEntityId() != null) {
+                    apply(event);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the customers matching every word of the query, in id order.
+     */
+    public List<Long> search(String query) {
+        Set<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = null;
+            for (String word : words) {
+                Set<Long> ids = postings.getOrDefault(word, Collections.emptySet());
+                if (matches == null) {
+                    matches = new TreeSet<>(ids);
+                } else {
+                    matches.retainAll(ids);
+                }
+                if (matches.isEmpty()) {
+                    break;
+                }
+            }
+            return new ArrayList<>(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of customers in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int live = 0;
+            for (Document document : documents.values()) {
+                if (!document.deleted) {
+                    live++;
+                }
+            }
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(DataChangeEvent event) {
+        Long id = event.getEntityId();
+        boolean delete = "DELETE".equals(event.getOperation());
+        Document current = documents.get(id);
+        boolean recreate = current != null && current.deleted && "CREATE".equals(event.getOperation());
+        if (current != null && !recreate && isStale(current.version, event.getVersion(), delete)) {
+            return;
+        }
+        if (current != null) {
+            unindex(id, current.words);
+        }
+        if (delete) {
+            documents.put(id, new Document(event.getVersion(), Collections.emptySet(), true));
+            return;
+        }
+        Set<String> words = words(toCustomer(event));
+        for (String word : words) {
+            postings.computeIfAbsent(word, w -> new LinkedHashSet<>()).add(id);
+        }
+        documents.put(id, new Document(event.getVersion(), words, false));
+    }
+
+    // A DELETE carries the version of the row it removed, so it only loses to a strictly newer one
+    private static boolean isStale(Long indexed, Long incoming, boolean delete) {
+        if (indexed == null || incoming == null) {
+            return false;
+        }
+        return delete ? incoming < indexed : incoming <= indexed;
+    }
+
+    private void unindex(Long id, Set<String> words) {
+        for (String word : words) {
+            Set<Long> ids = postings.get(word);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    private Customer toCustomer(DataChangeEvent event) {
+        Object data = event.getData();
+        if (data instanceof Customer) {
+            return Customer.class.cast(data);
+        }
+        return objectMapper.convertValue(data, Customer.class);
+    }
+
+    private static Set<String> words(Customer customer) {
+        Set<String> words = new LinkedHashSet<>();
+        words.addAll(tokenize(customer.getName()));
+        words.addAll(tokenize(customer.getEmail()));
+        words.addAll(tokenize(customer.getPhone()));
+        words.addAll(tokenize(customer.getAddress()));
+        return words;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static final class Document {
+        private final Long version;
+        private final Set<String> words;
+        private final boolean deleted;
+
+        private Document(Long version, Set<String> words, boolean deleted) {
+            this.version = version;
+            this.words = words;
+            this.deleted = deleted;
+        }
+    }
+}
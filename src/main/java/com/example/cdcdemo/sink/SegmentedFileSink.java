@@ -0,0 +1,113 @@
+package com.example.cdcdemo.sink;
+
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Appends change events to a log of segment files, one JSON event per line.
+ * <p>
+ * Segments are named {@code events-<sequence>.log}; a batch that would push the current one past the
+ * segment size starts the next, so a batch never spans two files. After a restart writing continues
+ * in the newest segment. A batch that fails half written is appended again on retry, so readers should
+ * skip duplicates by entity id and version. With {@code fsync} on, every batch is forced to disk
+ * before it counts as written.
+ */
+public class SegmentedFileSink implements ChangeEventSink, AutoCloseable {
+
+    public static final String NAME = "file";
+
+    private static final String PREFIX = "events-";
+    private static final String SUFFIX = ".log";
+    private static final byte NEWLINE = '\n';
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+
+    private long sequence;
+    private FileChannel channel;
+
+    public SegmentedFileSink(Path directory, long segmentBytes, boolean fsync, ObjectMapper objectMapper) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(directory);
+        List<Path> existing = segments();
+        this.sequence = existing.isEmpty() ? 0 : sequenceOf(existing.get(existing.size() - 1));
+        this.channel = open(sequence);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void write(List<DataChangeEvent> events) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 256);
+        for (DataChangeEvent event : events) {
+            objectMapper.writeValue(buffer, event);
+            buffer.write(NEWLINE);
+        }
+        if (channel.size() > 0 && channel.size() + buffer.size() > segmentBytes) {
+            roll();
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * The segment files, oldest first.
+     */
+    public List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void roll() throws IOException {
+        channel.force(false);
+        channel.close();
+        channel = open(++sequence);
+    }
+
+    private FileChannel open(long sequence) throws IOException {
+        // Zero-padded so that name order is sequence order
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.cdcdemo.sink;
+
+import com.example.cdcdemo.config.SinkProperties;
+import com.example.cdcdemo.model.DataChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands consumed change events to every sink, each through its own {@link SinkWorker}.
+ * <p>
+ * Events go to all sinks that have room first; only then does the caller wait on the sinks whose
+ * queues are full. A slow sink therefore slows the consumer down (backpressure) once its queue is
+ * full, but the other sinks have already received the events and keep writing in parallel.
+ */
+@Slf4j
+public class SinkDispatcher implements AutoCloseable {
+
+    private final List<SinkWorker> workers = new ArrayList<>();
+
+    public SinkDispatcher(List<ChangeEventSink> sinks, SinkProperties config, MeterRegistry meterRegistry) {
+        for (ChangeEventSink sink : sinks) {
+            workers.add(new SinkWorker(sink, config, meterRegistry));
+        }
+        log.info("Delivering change events to sinks: {}", names());
+    }
+
+    public void dispatch(List<DataChangeEvent> events) {
+        if (events.isEmpty() || workers.isEmpty()) {
+            return;
+        }
+        Map<SinkWorker, Integer> full = new LinkedHashMap<>();
+        for (SinkWorker worker : workers) {
+            int accepted = worker.offerNow(events);
+            if (accepted < events.size()) {
+                full.put(worker, accepted);
+            }
+        }
+        for (Map.Entry<SinkWorker, Integer> entry : full.entrySet()) {
+            entry.getKey().offer(events.subList(entry.getValue(), events.size()));
+        }
+    }
+
+    public List<String> names() {
+        List<String> names = new ArrayList<>(workers.size());
+        for (SinkWorker worker : workers) {
+            names.add(worker.name());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    @Override
+    public void close() {
+        for (SinkWorker worker : workers) {
+            worker.close();
+        }
+    }
+}
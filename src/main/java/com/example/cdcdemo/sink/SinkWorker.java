@@ -0,0 +1,191 @@
+package com.example.cdcdemo.sink;
+
+import com.example.cdcdemo.config.SinkProperties;
+import com.example.cdcdemo.model.DataChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queue and writer thread of one sink.
+ * <p>
+ * Events wait in a bounded queue; the thread takes up to {@code batchSize} of them, waiting at most
+ * {@code linger} for a batch to fill, and writes them with exponential backoff between attempts.
+ * A full queue makes producers wait up to {@code offerTimeout}; what still doesn't fit is dropped for
+ * this sink only. A batch that still fails after {@code maxAttempts} is dropped as well. The consumer
+ * has acknowledged those messages by then, so dropped events are lost for the sink; set
+ * {@code maxAttempts} to 0 to retry until the write succeeds and {@code offerTimeout} to 0 to wait
+ * for room indefinitely, which turns sink outages into backpressure instead. Metrics are tagged with the sink name: events written, failed and dropped, retries,
+ * queue size, and the lag from an event's timestamp to its write.
+ */
+@Slf4j
+class SinkWorker implements AutoCloseable {
+
+    private final ChangeEventSink sink;
+    private final SinkProperties config;
+    private final BlockingQueue<DataChangeEvent> queue;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final Counter eventsWritten;
+    private final Counter eventsFailed;
+    private final Counter eventsDropped;
+    private final Counter retries;
+    private final Timer lag;
+
+    SinkWorker(ChangeEventSink sink, SinkProperties config, MeterRegistry meterRegistry) {
+        this.sink = sink;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+
+        String name = sink.name();
+        this.eventsWritten = meterRegistry.counter("cdc.sink.events.written", "sink", name);
+        this.eventsFailed = meterRegistry.counter("cdc.sink.events.failed", "sink", name);
+        this.eventsDropped = meterRegistry.counter("cdc.sink.events.dropped", "sink", name);
+        this.retries = meterRegistry.counter("cdc.sink.retries", "sink", name);
+        this.lag = Timer.builder("cdc.sink.lag")
+                .tag("sink", name)
+                .description("Time from a change event's timestamp to its write to the sink")
+                .register(meterRegistry);
+        Gauge.builder("cdc.sink.queue.size", queue, BlockingQueue::size)
+                .tag("sink", name)
+                .register(meterRegistry);
+
+        this.thread = new Thread(this::run, "cdc-sink-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    String name() {
+        return sink.name();
+    }
+
+    /**
+     * Queue as many of the events as fit right now, in order.
+     *
+     * @return how many were queued
+     */
+    int offerNow(List<DataChangeEvent> events) {
+        if (!running) {
+            return 0;
+        }
+        int accepted = 0;
+        while (accepted < events.size() && queue.offer(events.get(accepted))) {
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Queue the events, waiting up to the offer timeout (or, when it is zero, as long as it takes) for
+     * room; the ones that don't fit are dropped.
+     */
+    void offer(List<DataChangeEvent> events) {
+        boolean waitForRoom = config.getOfferTimeout().isZero();
+        long deadline = System.nanoTime() + config.getOfferTimeout().toNanos();
+        int accepted = 0;
+        try {
+            while (running && accepted < events.size()) {
+                // Without a timeout, wake up now and then to notice a shutdown
+                long wait = waitForRoom ? TimeUnit.MILLISECONDS.toNanos(100) : deadline - System.nanoTime();
+                if (queue.offer(events.get(accepted), wait, TimeUnit.NANOSECONDS)) {
+                    accepted++;
+                } else if (!waitForRoom) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int dropped = events.size() - accepted;
+        if (dropped > 0) {
+            eventsDropped.increment(dropped);
+            log.warn("Sink {} is full, dropped {} change events", name(), dropped);
+        }
+    }
+
+    private void run() {
+        List<DataChangeEvent> batch = new ArrayList<>(config.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                DataChangeEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + config.getLinger().toNanos();
+                while (batch.size() < config.getBatchSize()) {
+                    DataChangeEvent next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<DataChangeEvent> batch) throws InterruptedException {
+        long backoff = config.getInitialBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.write(batch);
+                eventsWritten.increment(batch.size());
+                recordLag(batch);
+                return;
+            } catch (Exception e) {
+                if (config.getMaxAttempts() > 0 && attempt >= config.getMaxAttempts()) {
+                    eventsFailed.increment(batch.size());
+                    log.error("Sink {} failed to write {} change events after {} attempts", name(), batch.size(), attempt, e);
+                    return;
+                }
+                retries.increment();
+                log.warn("Sink {} failed to write {} change events (attempt {}), retrying in {} ms: {}",
+                        name(), batch.size(), attempt, backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, config.getMaxBackoff().toMillis());
+            }
+        }
+    }
+
+    private void recordLag(List<DataChangeEvent> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        for (DataChangeEvent event : batch) {
+            if (event.getTimestamp() != null) {
+                lag.record(Duration.between(event.getTimestamp(), now));
+            }
+        }
+    }
+
+    /**
+     * Stop taking events and write what is queued, for up to the shutdown timeout.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(config.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            thread.interrupt();
+            log.warn("Sink {} stopped with {} change events still queued", name(), queue.size());
+        }
+    }
+}
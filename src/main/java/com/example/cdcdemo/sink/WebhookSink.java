@@ -0,0 +1,35 @@
+package com.example.cdcdemo.sink;
+
+import com.example.cdcdemo.model.DataChangeEvent;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+/**
+ * POSTs each batch of change events as a JSON array to an HTTP endpoint.
+ * <p>
+ * Any error or non-2xx response fails the batch, which the worker then retries; the receiver gets
+ * at-least-once delivery and should ignore events whose version it has already seen.
+ */
+public class WebhookSink implements ChangeEventSink {
+
+    public static final String NAME = "webhook";
+
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    public WebhookSink(RestTemplate restTemplate, String url) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void write(List<DataChangeEvent> events) {
+        restTemplate.postForEntity(url, events, Void.class);
+    }
+}
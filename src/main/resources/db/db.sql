@@ -16,8 +16,86 @@ CREATE TABLE IF NOT EXISTS integration_jobs (
     error_message TEXT NULL,
     field_mappings TEXT NULL,
     source_config TEXT NULL,
+    -- Resume point: source records consumed by the last committed chunk
+    checkpoint_offset BIGINT NOT NULL DEFAULT 0,
+    -- Records written successfully up to checkpoint_offset; records_success is the live counter instead
+    checkpoint_success BIGINT NOT NULL DEFAULT 0,
+    -- Node that owns the job while it is queued or running, renewed by heartbeat
+    lease_owner VARCHAR(100) NULL,
+    lease_expires_at TIMESTAMP NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    -- 1: the job row is the unit of work; more: work is done by rows in integration_job_shards
+    shard_count INT NOT NULL DEFAULT 1,
     UNIQUE KEY (integration_id),
     INDEX idx_status (status),
+    INDEX idx_status_lease (status, lease_expires_at),
     INDEX idx_source_name (source_name),
     INDEX idx_target_entity (target_entity)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Shards of a large integration job, claimed and processed independently by any node
+CREATE TABLE IF NOT EXISTS integration_job_shards (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    integration_id VARCHAR(36) NOT NULL,
+    shard_index INT NOT NULL,
+    shard_count INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    checkpoint_offset BIGINT NOT NULL DEFAULT 0,
+    records_processed BIGINT NOT NULL DEFAULT 0,
+    records_success BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT NULL,
+    lease_owner VARCHAR(100) NULL,
+    lease_expires_at TIMESTAMP NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_integration_shard (integration_id, shard_index),
+    INDEX idx_status_lease (status, lease_expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Transactional outbox for change events (cdc.publisher.mode=outbox)
+CREATE TABLE IF NOT EXISTS change_event_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id BIGINT NULL,
+    operation VARCHAR(20) NOT NULL,
+    payload MEDIUMTEXT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    sent_at TIMESTAMP(3) NULL,
+    INDEX idx_sent_at_id (sent_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- One row per relay; the relay transaction locks it so only one node sends outbox events at a time
+CREATE TABLE IF NOT EXISTS change_event_outbox_relay (
+    name VARCHAR(64) PRIMARY KEY
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO change_event_outbox_relay (name) VALUES ('default');
+
+-- Binlog capture checkpoints (cdc.publisher.mode=binlog)
+CREATE TABLE IF NOT EXISTS cdc_binlog_checkpoint (
+    name VARCHAR(64) PRIMARY KEY,
+    binlog_file VARCHAR(255) NULL,
+    binlog_position BIGINT NULL,
+    gtid_set TEXT NULL,
+    updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Row version of customers, carried on change events (the customers table itself is created outside this script)
+-- Guarded like the CREATE TABLE IF NOT EXISTS statements above so the script can be re-run
+SET @add_customer_version = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE customers ADD COLUMN version BIGINT NOT NULL DEFAULT 1',
+        'DO 0')
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'customers' AND COLUMN_NAME = 'version');
+PREPARE add_customer_version FROM @add_customer_version;
+EXECUTE add_customer_version;
+DEALLOCATE PREPARE add_customer_version;
+
+-- Success count of the job checkpoint, for integration_jobs tables created before the column existed
+SET @add_checkpoint_success = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE integration_jobs ADD COLUMN checkpoint_success BIGINT NOT NULL DEFAULT 0 AFTER checkpoint_offset',
+        'DO 0')
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'integration_jobs' AND COLUMN_NAME = 'checkpoint_success');
+PREPARE add_checkpoint_success FROM @add_checkpoint_success;
+EXECUTE add_checkpoint_success;
+DEALLOCATE PREPARE add_checkpoint_success;
@@ -0,0 +1,107 @@
+package com.example.cdcdemo.cache;
+
+import com.example.cdcdemo.config.RedisWriteProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisUnitOfWorkTests {
+
+    private static final byte[] KEY = "customers::1".getBytes();
+    private static final byte[] OTHER_KEY = "customers::2".getBytes();
+    private static final byte[] CHANNEL = "channel".getBytes();
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+    private final RedisConnection connection = mock(RedisConnection.class);
+    private final RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+    private final RedisWriteProperties properties = new RedisWriteProperties();
+    private final RedisUnitOfWork unitOfWork = new RedisUnitOfWork(redisTemplate, properties);
+
+    RedisUnitOfWorkTests() {
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection);
+            return null;
+        });
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void sendsTheWritesOfATransactionInOnePipelineAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        unitOfWork.afterCommit(c -> unitOfWork.delete(c, KEY));
+        unitOfWork.afterCommit(c -> c.publish(CHANNEL, KEY));
+        unitOfWork.afterCommit(c -> unitOfWork.delete(c, OTHER_KEY));
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(keyCommands).unlink(KEY);
+        verify(keyCommands).unlink(OTHER_KEY);
+        verify(connection).publish(CHANNEL, KEY);
+        assertThat(TransactionSynchronizationManager.getResource(unitOfWork)).isNull();
+    }
+
+    @Test
+    void dropsTheWritesOfARolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        unitOfWork.afterCommit(c -> unitOfWork.delete(c, KEY));
+
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void sendsRightAwayWithoutATransactionAndUsesDelWhenUnlinkIsOff() {
+        properties.setUnlink(false);
+
+        unitOfWork.afterCommit(c -> unitOfWork.delete(c, KEY));
+
+        verify(keyCommands).del(KEY);
+        verify(keyCommands, never()).unlink(any());
+    }
+
+    @Test
+    void spreadsTtlsWithinTheJitterRatio() {
+        properties.setTtlJitter(0.1);
+        Duration ttl = Duration.ofHours(24);
+        Set<Duration> seen = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            Duration jittered = unitOfWork.jitter(ttl);
+            assertThat(jittered).isBetween(Duration.ofMinutes(1296), Duration.ofMinutes(1584));
+            seen.add(jittered);
+        }
+        assertThat(seen).hasSizeGreaterThan(1);
+
+        properties.setTtlJitter(0);
+        assertThat(unitOfWork.jitter(ttl)).isEqualTo(ttl);
+    }
+}
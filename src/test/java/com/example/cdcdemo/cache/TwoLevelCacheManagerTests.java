@@ -0,0 +1,114 @@
+package com.example.cdcdemo.cache;
+
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.config.NearCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TwoLevelCacheManagerTests {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager();
+    private final CacheInvalidationBus bus;
+    private final TwoLevelCacheManager cacheManager;
+
+    @SuppressWarnings("unchecked")
+    TwoLevelCacheManagerTests() {
+        NearCacheProperties properties = new NearCacheProperties();
+        bus = new CacheInvalidationBus(mock(RedisTemplate.class), objectMapper, properties);
+        cacheManager = new TwoLevelCacheManager(remote, properties, bus, meterRegistry);
+    }
+
+    @Test
+    void servesRepeatReadsFromTheLocalLevel() {
+        Cache cache = cacheManager.getCache("customers");
+        remote.getCache("customers").put(1L, "Jane");
+
+        assertThat(cache.get(1L).get()).isEqualTo("Jane");
+        // Changed behind the cache's back: the local copy still answers
+        remote.getCache("customers").put(1L, "Stale");
+        assertThat(cache.get(1L).get()).isEqualTo("Jane");
+
+        assertThat(gets("l1", "hit")).isEqualTo(1);
+        assertThat(gets("l2", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void dropsLocalEntriesOnInvalidationFromOtherNodes() throws Exception {
+        Cache cache = cacheManager.getCache("customers");
+        cache.put(1L, "Jane");
+        remote.getCache("customers").put(1L, "Janet");
+
+        CacheInvalidation invalidation = new CacheInvalidation("other-node", "customers", Collections.singletonList("1"));
+        bus.onMessage(new DefaultMessage(bus.getChannel().getBytes(), objectMapper.writeValueAsBytes(invalidation)), null);
+
+        assertThat(cache.get(1L).get()).isEqualTo("Janet");
+    }
+
+    @Test
+    void evictionClearsBothLevels() {
+        Cache cache = cacheManager.getCache("customers");
+        cache.put(1L, "Jane");
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(gets("l2", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        Cache cache = cacheManager.getCache("customers");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get(7L, () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(50);
+                        return "Loaded";
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Loaded");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(remote.getCache("customers").get(7L).get()).isEqualTo("Loaded");
+    }
+
+    private double gets(String level, String result) {
+        return meterRegistry.find("cache.gets").tags("cache", "customers", "level", level, "result", result)
+                .functionCounters().stream().mapToDouble(c -> c.count()).sum()
+                + meterRegistry.find("cache.gets").tags("cache", "customers", "level", level, "result", result)
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+}
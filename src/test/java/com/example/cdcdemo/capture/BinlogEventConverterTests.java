@@ -0,0 +1,144 @@
+package com.example.cdcdemo.capture;
+
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.TableMapEventData;
+import com.github.shyiko.mysql.binlog.event.TableMapEventMetadata;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinlogEventConverterTests {
+
+    private static final List<String> CUSTOMER_COLUMNS = Arrays.asList("id", "name", "email", "phone", "address");
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final BinlogEventConverter converter = new BinlogEventConverter("cdcdemo",
+            Collections.singletonMap("customers", "customer"),
+            (database, table) -> {
+                lookups.incrementAndGet();
+                return CUSTOMER_COLUMNS;
+            });
+
+    @Test
+    void convertsInsertsUsingResolvedColumnNames() {
+        converter.onTableMap(tableMap(7, "cdcdemo", "customers", null));
+
+        WriteRowsEventData insert = new WriteRowsEventData();
+        insert.setTableId(7);
+        insert.setIncludedColumns(allColumns(5));
+        insert.setRows(Arrays.asList(
+                row(1L, "Jane", "jane@example.com", null, "Main St"),
+                row(2L, "John", null, "555", null)));
+
+        List<DataChangeEvent> events = converter.convert(insert, 0L);
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getEntityType()).isEqualTo("customer");
+        assertThat(events.get(0).getEntityId()).isEqualTo(1L);
+        assertThat(events.get(0).getOperation()).isEqualTo("CREATE");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) events.get(0).getData();
+        assertThat(data).containsEntry("name", "Jane").containsEntry("address", "Main St").containsEntry("phone", null);
+        assertThat(events.get(1).getEntityId()).isEqualTo(2L);
+
+        converter.convert(insert, 0L);
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void updatesCarryBothImagesAndDeletesTheBeforeImage() {
+        converter.onTableMap(tableMap(9, "cdcdemo", "customers",
+                Arrays.asList("id", "name", "email", "phone", "address", "version")));
+
+        UpdateRowsEventData update = new UpdateRowsEventData();
+        update.setTableId(9);
+        update.setIncludedColumnsBeforeUpdate(allColumns(6));
+        update.setIncludedColumns(allColumns(6));
+        update.setRows(Collections.<Map.Entry<Serializable[], Serializable[]>>singletonList(
+                new AbstractMap.SimpleEntry<>(row(3L, "Old", null, "555", null, 4L), row(3L, "New", null, "555", null, 5L))));
+
+        DeleteRowsEventData delete = new DeleteRowsEventData();
+        delete.setTableId(9);
+        delete.setIncludedColumns(allColumns(6));
+        delete.setRows(Collections.singletonList(row(4L, "Gone", null, null, null, 2L)));
+
+        DataChangeEvent updated = converter.convert(update, 0L).get(0);
+        DataChangeEvent deleted = converter.convert(delete, 0L).get(0);
+
+        assertThat(updated.getOperation()).isEqualTo("UPDATE");
+        assertThat(((Map<?, ?>) updated.getData()).get("name")).isEqualTo("New");
+        assertThat(((Map<?, ?>) updated.getBefore()).get("name")).isEqualTo("Old");
+        assertThat(updated.getChangedFields()).containsExactly("name");
+        assertThat(updated.getVersion()).isEqualTo(5L);
+        assertThat(deleted.getOperation()).isEqualTo("DELETE");
+        assertThat(deleted.getEntityId()).isEqualTo(4L);
+        assertThat(lookups.get()).isZero();
+    }
+
+    @Test
+    void ignoresTablesThatAreNotCaptured() {
+        converter.onTableMap(tableMap(1, "cdcdemo", "integration_jobs", null));
+        converter.onTableMap(tableMap(2, "other", "customers", null));
+
+        for (long tableId : new long[]{1, 2, 3}) {
+            WriteRowsEventData insert = new WriteRowsEventData();
+            insert.setTableId(tableId);
+            insert.setIncludedColumns(allColumns(5));
+            insert.setRows(Collections.singletonList(row(1L, "x", null, null, null)));
+            assertThat(converter.convert(insert, 0L)).isEmpty();
+        }
+    }
+
+    @Test
+    void camelCasesColumnNames() {
+        assertThat(BinlogEventConverter.toCamelCase("created_at")).isEqualTo("createdAt");
+        assertThat(BinlogEventConverter.toCamelCase("id")).isEqualTo("id");
+    }
+
+    private static TableMapEventData tableMap(long tableId, String database, String table, List<String> columnNames) {
+        TableMapEventData tableMap = new TableMapEventData();
+        tableMap.setTableId(tableId);
+        tableMap.setDatabase(database);
+        tableMap.setTable(table);
+        if (columnNames != null) {
+            TableMapEventMetadata metadata = new TableMapEventMetadata();
+            metadata.setColumnNames(columnNames);
+            tableMap.setEventMetadata(metadata);
+        }
+        return tableMap;
+    }
+
+    private static BitSet allColumns(int count) {
+        BitSet columns = new BitSet();
+        columns.set(0, count);
+        return columns;
+    }
+
+    /**
+     * Strings are given as bytes, the way the client decodes them with CHAR_AND_BINARY_AS_BYTE_ARRAY.
+     */
+    private static Serializable[] row(Long id, String name, String email, String phone, String address) {
+        return new Serializable[]{id, bytes(name), bytes(email), bytes(phone), bytes(address)};
+    }
+
+    private static Serializable[] row(Long id, String name, String email, String phone, String address, Long version) {
+        return new Serializable[]{id, bytes(name), bytes(email), bytes(phone), bytes(address), version};
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
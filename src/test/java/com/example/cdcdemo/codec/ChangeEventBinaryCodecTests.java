@@ -0,0 +1,86 @@
+package com.example.cdcdemo.codec;
+
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeEventBinaryCodecTests {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final ChangeEventBinaryCodec codec = new ChangeEventBinaryCodec(PayloadTypeRegistry.defaults(), objectMapper);
+
+    @Test
+    void decodesRegisteredPayloadsAsTypedEntities() {
+        Customer customer = new Customer(-7L, "Zoë", "zoe@example.com", null, "1 Main St", 4L);
+        DataChangeEvent event = new DataChangeEvent("customer", 12345L, "UPDATE", customer,
+                LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456789));
+
+        DataChangeEvent decoded = codec.decode(codec.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getData()).isInstanceOf(Customer.class);
+    }
+
+    @Test
+    void carriesVersionBeforeImageAndChangedFieldMask() {
+        Customer before = new Customer(5L, "Old Name", "a@example.com", "555", null, 2L);
+        Customer after = new Customer(5L, "New Name", "b@example.com", "555", null, 3L);
+        DataChangeEvent event = new DataChangeEvent("customer", 5L, "UPDATE", after, LocalDateTime.now());
+        event.setVersion(3L);
+        event.setBefore(before);
+        event.setChangedFields(Arrays.asList("name", "email"));
+
+        DataChangeEvent decoded = codec.decode(codec.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+        assertThat(decoded.getBefore()).isInstanceOf(Customer.class);
+    }
+
+    @Test
+    void embedsUnregisteredPayloadsAsJson() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 3);
+        row.put("name", "Binlog Row");
+        DataChangeEvent event = new DataChangeEvent("customer", 3L, "MERGE", row, null);
+        event.setChangedFields(Arrays.asList("name"));
+
+        DataChangeEvent decoded = codec.decode(codec.encode(event));
+
+        assertThat(decoded.getOperation()).isEqualTo("MERGE");
+        assertThat(decoded.getTimestamp()).isNull();
+        assertThat(decoded.getData()).isEqualTo(row);
+        assertThat(decoded.getChangedFields()).containsExactly("name");
+    }
+
+    @Test
+    void consumersReadBothEncodingsByContentType() {
+        Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter(objectMapper);
+        BinaryChangeEventMessageConverter binary = new BinaryChangeEventMessageConverter(codec);
+        ContentTypeDelegatingMessageConverter consumer = new ContentTypeDelegatingMessageConverter(json);
+        consumer.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        consumer.addDelegate(BinaryChangeEventMessageConverter.CONTENT_TYPE, binary);
+
+        Customer customer = new Customer(1L, "Jane", "jane@example.com", "555-0001", "2 High St", 1L);
+        DataChangeEvent event = new DataChangeEvent("customer", 1L, "CREATE", customer, LocalDateTime.now());
+        Message jsonMessage = json.toMessage(event, new MessageProperties());
+        Message binaryMessage = binary.toMessage(event, new MessageProperties());
+
+        assertThat(binaryMessage.getMessageProperties().getContentType()).isEqualTo(BinaryChangeEventMessageConverter.CONTENT_TYPE);
+        assertThat(binaryMessage.getBody().length).isLessThan(jsonMessage.getBody().length / 2);
+        assertThat(((DataChangeEvent) consumer.fromMessage(jsonMessage)).getData()).isInstanceOf(Map.class);
+        assertThat(consumer.fromMessage(binaryMessage)).isEqualTo(event);
+    }
+}
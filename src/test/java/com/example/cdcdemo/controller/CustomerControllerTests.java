@@ -0,0 +1,56 @@
+package com.example.cdcdemo.controller;
+
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.service.ConcurrentCustomerUpdateException;
+import com.example.cdcdemo.service.CustomerBulkService;
+import com.example.cdcdemo.service.CustomerNotFoundException;
+import com.example.cdcdemo.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CustomerControllerTests {
+
+    private static final String BODY = "{\"name\":\"Jane Doe\"}";
+
+    private final CustomerService customerService = mock(CustomerService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new CustomerController(customerService,
+            mock(CustomerBulkService.class), new JacksonConfig().objectMapper())).build();
+
+    @Test
+    void updateReturnsTheUpdatedCustomer() throws Exception {
+        when(customerService.updateCustomer(eq(1L), any(Customer.class)))
+                .thenReturn(new Customer(1L, "Jane Doe", null, null, null, 2L));
+
+        mockMvc.perform(put("/api/customers/1").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    void updateOfAMissingCustomerIsNotFound() throws Exception {
+        when(customerService.updateCustomer(eq(1L), any(Customer.class))).thenThrow(new CustomerNotFoundException(1L));
+
+        mockMvc.perform(put("/api/customers/1").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateThatLostAConcurrentModificationIsAConflict() throws Exception {
+        when(customerService.updateCustomer(eq(1L), any(Customer.class)))
+                .thenThrow(new ConcurrentCustomerUpdateException(1L));
+
+        mockMvc.perform(put("/api/customers/1").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isConflict());
+    }
+}
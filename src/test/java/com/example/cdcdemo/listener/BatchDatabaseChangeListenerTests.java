@@ -0,0 +1,88 @@
+package com.example.cdcdemo.listener;
+
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class BatchDatabaseChangeListenerTests {
+
+    private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(new JacksonConfig().objectMapper());
+    private final ChangeEventHandler handler = mock(ChangeEventHandler.class);
+    private final Channel channel = mock(Channel.class);
+    private final BatchDatabaseChangeListener listener = new BatchDatabaseChangeListener(handler, converter);
+
+    @Test
+    void acksWholeBatchOnce() throws Exception {
+        listener.onMessageBatch(Arrays.asList(message(1, 11L), message(2, 12L), message(3, 13L)), channel);
+
+        verify(handler).handle(argThat(events -> events.size() == 3 && events.get(2).getEntityId() == 3L));
+        verify(channel).basicAck(13L, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void retriesFailedBatchPerEventAndRejectsPoisonMessages() throws Exception {
+        doThrow(new RuntimeException("boom")).when(handler).handle(argThat(events -> events.size() == 2));
+        doThrow(new RuntimeException("boom")).when(handler)
+                .handle(argThat(events -> events.size() == 1 && events.get(0).getEntityId() == 2L));
+
+        listener.onMessageBatch(Arrays.asList(message(1, 21L), message(2, 22L)), channel);
+
+        verify(channel).basicAck(21L, false);
+        verify(channel).basicNack(22L, false, false);
+        verify(channel, never()).basicAck(anyLong(), eq(true));
+    }
+
+    @Test
+    void settlesProducerBatchedFragmentsOncePerDeliveryTag() throws Exception {
+        doThrow(new RuntimeException("boom")).when(handler).handle(argThat(events -> events.size() == 3));
+        doThrow(new RuntimeException("boom")).when(handler).handle(argThat(events -> events.size() == 2));
+        doThrow(new IllegalArgumentException("poison")).when(handler)
+                .handle(argThat(events -> events.size() == 1 && events.get(0).getEntityId() == 2L));
+
+        // Events 1 and 2 came in one AMQP message, event 3 in the next
+        listener.onMessageBatch(Arrays.asList(message(1, 31L), message(2, 31L), message(3, 32L)), channel);
+
+        verify(handler).handle(argThat(events -> events.size() == 1 && events.get(0).getEntityId() == 1L));
+        verify(channel).basicNack(31L, false, false);
+        verify(channel).basicAck(32L, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void requeuesTheRestOfTheBatchWhenAStoreIsDown() throws Exception {
+        doThrow(new RuntimeException("boom")).when(handler).handle(argThat(events -> events.size() == 3));
+        doThrow(new RedisConnectionFailureException("redis down")).when(handler)
+                .handle(argThat(events -> events.get(0).getEntityId() == 2L));
+
+        listener.onMessageBatch(Arrays.asList(message(1, 41L), message(2, 42L), message(3, 42L)), channel);
+
+        verify(channel).basicAck(41L, false);
+        verify(channel).basicNack(42L, false, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    private Message message(long id, long deliveryTag) {
+        DataChangeEvent event = new DataChangeEvent("customer", id, "UPDATE", Collections.emptyMap(), null);
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return converter.toMessage(event, properties);
+    }
+}
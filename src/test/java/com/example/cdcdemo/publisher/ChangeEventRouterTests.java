@@ -0,0 +1,35 @@
+package com.example.cdcdemo.publisher;
+
+import com.example.cdcdemo.config.RoutingProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeEventRouterTests {
+
+    @Test
+    void sameEntityAlwaysMapsToTheSamePartition() {
+        ChangeEventRouter router = router(8);
+
+        assertThat(router.routingKey("customer", 42L)).isEqualTo(router.routingKey("customer", 42L));
+        assertThat(router.routingKey("customer", 42L)).startsWith("cdc.routingkey.");
+    }
+
+    @Test
+    void spreadsSequentialIdsAcrossAllPartitions() {
+        ChangeEventRouter router = router(8);
+        int[] counts = new int[8];
+        for (long id = 1; id <= 8000; id++) {
+            counts[router.partition("customer", id)]++;
+        }
+        for (int count : counts) {
+            assertThat(count).isBetween(800, 1200);
+        }
+    }
+
+    private static ChangeEventRouter router(int partitions) {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setPartitions(partitions);
+        return new ChangeEventRouter(properties);
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.cdcdemo.publisher;
+
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.config.PublisherProperties;
+import com.example.cdcdemo.config.RoutingProperties;
+import com.example.cdcdemo.mapper.OutboxEventMapper;
+import com.example.cdcdemo.model.DataChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ConfirmingBatchPublisherTests {
+
+    private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(new JacksonConfig().objectMapper());
+    private final InProcessBroker broker = new InProcessBroker();
+    private ConfirmingBatchPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.close();
+        }
+    }
+
+    @Test
+    void sendsFullBatchesImmediatelyAndRestOnFlush() throws Exception {
+        publisher = newPublisher(batch(3, Duration.ofHours(1)));
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (long id = 1; id <= 7; id++) {
+            futures.add(publisher.publish("rk", event(id)));
+        }
+        awaitSent(2);
+
+        publisher.flush();
+
+        awaitSent(3);
+        List<Long> ids = new ArrayList<>();
+        for (Message message : broker.sent) {
+            for (DataChangeEvent event : debatch(message)) {
+                ids.add(event.getEntityId());
+            }
+        }
+        assertThat(ids).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void flushesOnInterval() throws Exception {
+        publisher = newPublisher(batch(100, Duration.ofMillis(20)));
+
+        publisher.publish("rk", event(1L)).get(2, TimeUnit.SECONDS);
+
+        assertThat(broker.sent).hasSize(1);
+    }
+
+    @Test
+    void retriesNackedBatch() throws Exception {
+        broker.nacksBeforeAck.set(2);
+        publisher = newPublisher(batch(1, Duration.ofHours(1)));
+
+        publisher.publish("rk", event(1L)).get(5, TimeUnit.SECONDS);
+
+        assertThat(broker.sent).hasSize(3);
+        assertThat(publisher.getInFlight()).isZero();
+    }
+
+    @Test
+    void keepsRetriedBatchAheadOfLaterBatchesForTheSameRoutingKey() throws Exception {
+        broker.nacksBeforeAck.set(1);
+        publisher = newPublisher(batch(1, Duration.ofHours(1)));
+
+        CompletableFuture<Void> first = publisher.publish("rk", event(1L));
+        CompletableFuture<Void> second = publisher.publish("rk", event(2L));
+        CompletableFuture<Void> other = publisher.publish("other", event(3L));
+        CompletableFuture.allOf(first, second, other).get(5, TimeUnit.SECONDS);
+
+        List<Long> rk = new ArrayList<>();
+        for (int i = 0; i < broker.sent.size(); i++) {
+            if ("rk".equals(broker.routingKeys.get(i))) {
+                rk.add(debatch(broker.sent.get(i)).get(0).getEntityId());
+            }
+        }
+        assertThat(rk).containsExactly(1L, 1L, 2L);
+    }
+
+    @Test
+    void failsAfterRetriesAreExhausted() {
+        broker.nacksBeforeAck.set(Integer.MAX_VALUE);
+        PublisherProperties.Batch config = batch(1, Duration.ofHours(1));
+        config.setMaxRetries(1);
+        publisher = newPublisher(config);
+
+        CompletableFuture<Void> future = publisher.publish("rk", event(1L));
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(broker.sent).hasSize(2);
+    }
+
+    @Test
+    void blocksWhenInFlightWindowIsFull() throws Exception {
+        broker.autoConfirm = false;
+        PublisherProperties.Batch config = batch(1, Duration.ofHours(1));
+        config.setMaxInFlight(1);
+        publisher = newPublisher(config);
+
+        publisher.publish("rk", event(1L));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> publisher.publish("rk", event(2L)));
+
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+        assertThat(broker.sent).hasSize(1);
+
+        broker.confirm(0, true);
+        second.get(2, TimeUnit.SECONDS);
+        assertThat(broker.sent).hasSize(2);
+        broker.confirm(1, true);
+    }
+
+    @Test
+    void coalescesEventsForTheSameEntityWithinTheWindow() throws Exception {
+        PublisherProperties.Batch config = batch(100, Duration.ofHours(1));
+        config.setCoalesce(true);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        publisher = new ConfirmingBatchPublisher(broker, converter, "cdc.exchange", config, meterRegistry);
+
+        CompletableFuture<Void> created = publisher.publish("rk", event(1L, "CREATE", 1L));
+        publisher.publish("rk", event(2L, "UPDATE", 5L));
+        publisher.publish("rk", event(1L, "UPDATE", 2L));
+        publisher.publish("rk", event(3L, "CREATE", 1L));
+        publisher.publish("rk", event(2L, "UPDATE", 6L));
+        CompletableFuture<Void> cancelled = publisher.publish("rk", event(3L, "DELETE", 1L));
+        publisher.flush();
+
+        List<DataChangeEvent> sent = debatch(broker.sent.get(0));
+        assertThat(sent).extracting(DataChangeEvent::getEntityId).containsExactly(1L, 2L);
+        assertThat(sent).extracting(DataChangeEvent::getOperation).containsExactly("CREATE", "UPDATE");
+        assertThat(sent).extracting(DataChangeEvent::getVersion).containsExactly(2L, 6L);
+        created.get(1, TimeUnit.SECONDS);
+        assertThat(cancelled).isDone();
+        assertThat(meterRegistry.get("cdc.publisher.events.coalesce.ratio").gauge().value()).isEqualTo(4.0 / 6);
+    }
+
+    @Test
+    void coalescesAcrossTransactionsWhenFlushOnCommitIsLeftOn() throws Exception {
+        PublisherProperties properties = new PublisherProperties();
+        properties.setMode(PublisherProperties.Mode.BATCHED);
+        properties.getBatch().setFlushInterval(Duration.ofHours(1));
+        properties.getBatch().setCoalesce(true);
+        assertThat(properties.getBatch().isFlushOnCommit()).isTrue();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        publisher = new ConfirmingBatchPublisher(broker, converter, "cdc.exchange", properties.getBatch(), meterRegistry);
+        ChangeEventPublisher changeEventPublisher = new ChangeEventPublisher(mock(RabbitTemplate.class), publisher,
+                properties, mock(OutboxEventMapper.class), new JacksonConfig().objectMapper(),
+                new ChangeEventRouter(new RoutingProperties()));
+
+        inCommittedTransaction(() -> changeEventPublisher.publishEvent(event(1L, "CREATE", 1L)));
+        inCommittedTransaction(() -> changeEventPublisher.publishEvent(event(1L, "UPDATE", 2L)));
+        assertThat(broker.sent).isEmpty();
+        publisher.flush();
+
+        awaitSent(1);
+        List<DataChangeEvent> sent = debatch(broker.sent.get(0));
+        assertThat(sent).extracting(DataChangeEvent::getOperation).containsExactly("CREATE");
+        assertThat(sent).extracting(DataChangeEvent::getVersion).containsExactly(2L);
+        assertThat(meterRegistry.get("cdc.publisher.events.coalesce.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    private void inCommittedTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (broker.sent.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(broker.sent).hasSize(count);
+    }
+
+    private ConfirmingBatchPublisher newPublisher(PublisherProperties.Batch config) {
+        return new ConfirmingBatchPublisher(broker, converter, "cdc.exchange", config, new SimpleMeterRegistry());
+    }
+
+    private PublisherProperties.Batch batch(int size, Duration flushInterval) {
+        PublisherProperties.Batch config = new PublisherProperties.Batch();
+        config.setSize(size);
+        config.setFlushInterval(flushInterval);
+        config.setConfirmTimeout(Duration.ofSeconds(5));
+        return config;
+    }
+
+    private DataChangeEvent event(Long id) {
+        return new DataChangeEvent("customer", id, "UPDATE", null, LocalDateTime.now());
+    }
+
+    private DataChangeEvent event(Long id, String operation, Long version) {
+        DataChangeEvent event = new DataChangeEvent("customer", id, operation, null, LocalDateTime.now());
+        event.setVersion(version);
+        return event;
+    }
+
+    private List<DataChangeEvent> debatch(Message message) {
+        List<DataChangeEvent> events = new ArrayList<>();
+        SimpleBatchingStrategy strategy = new SimpleBatchingStrategy(0, 0, 0);
+        if (strategy.canDebatch(message.getMessageProperties())) {
+            strategy.deBatch(message, m -> events.add((DataChangeEvent) converter.fromMessage(m)));
+        } else {
+            events.add((DataChangeEvent) converter.fromMessage(message));
+        }
+        return events;
+    }
+
+    /**
+     * Broker stand-in that records messages and confirms them in-process.
+     */
+    private static class InProcessBroker implements MessageSender {
+        private final List<Message> sent = new CopyOnWriteArrayList<>();
+        private final List<String> routingKeys = new CopyOnWriteArrayList<>();
+        private final List<CorrelationData> correlations = new CopyOnWriteArrayList<>();
+        private final AtomicInteger nacksBeforeAck = new AtomicInteger();
+        private volatile boolean autoConfirm = true;
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            int index;
+            synchronized (this) {
+                routingKeys.add(routingKey);
+                sent.add(message);
+                correlations.add(correlationData);
+                index = correlations.size() - 1;
+            }
+            if (autoConfirm) {
+                confirm(index, nacksBeforeAck.getAndDecrement() <= 0);
+            }
+        }
+
+        void confirm(int index, boolean ack) {
+            correlations.get(index).getFuture().set(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+        }
+    }
+}
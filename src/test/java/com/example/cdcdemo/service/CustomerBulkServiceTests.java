@@ -0,0 +1,79 @@
+package com.example.cdcdemo.service;
+
+import com.example.cdcdemo.config.IntegrationProperties;
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.model.BulkResult;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.service.integration.CustomerBatchWriter;
+import com.example.cdcdemo.service.integration.IntegrationStrategy;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerBulkServiceTests {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final CustomerBatchWriter writer = mock(CustomerBatchWriter.class);
+    private final List<Integer> chunkSizes = new ArrayList<>();
+    private final CustomerBulkService service;
+
+    CustomerBulkServiceTests() {
+        IntegrationProperties properties = new IntegrationProperties();
+        properties.setChunkSize(2);
+        service = new CustomerBulkService(writer, properties);
+        when(writer.writeChunk(anyList(), any(IntegrationStrategy.class))).thenAnswer(invocation -> {
+            List<?> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return chunk.size();
+        });
+    }
+
+    @Test
+    void writesNdjsonInChunks() throws Exception {
+        String body = "{\"name\":\"a\"}\n{\"name\":\"b\"}\n{\"name\":\"c\"}\n";
+
+        BulkResult result = service.create(customers(body));
+
+        assertThat(chunkSizes).containsExactly(2, 1);
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getWritten()).isEqualTo(3);
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(result.getError()).isNull();
+    }
+
+    @Test
+    void acceptsJsonArrays() throws Exception {
+        BulkResult result = service.upsert(customers("[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}]"));
+
+        assertThat(chunkSizes).containsExactly(2);
+        assertThat(result.getWritten()).isEqualTo(2);
+    }
+
+    @Test
+    void stopsAtFirstFailedChunkAndReportsCommittedOnes() throws Exception {
+        when(writer.deleteChunk(anyList()))
+                .thenReturn(2)
+                .thenThrow(new RuntimeException("deadlock"));
+        MappingIterator<Long> ids = objectMapper.readerFor(Long.class).readValues("1\n2\n3\n4\n5\n6\n");
+
+        BulkResult result = service.delete(ids);
+
+        assertThat(result.getChunks()).isEqualTo(1);
+        assertThat(result.getWritten()).isEqualTo(2);
+        assertThat(result.getReceived()).isEqualTo(4);
+        assertThat(result.getError()).isEqualTo("deadlock");
+    }
+
+    private MappingIterator<Customer> customers(String body) throws Exception {
+        return objectMapper.readerFor(Customer.class).readValues(body);
+    }
+}
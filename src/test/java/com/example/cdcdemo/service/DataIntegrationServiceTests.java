@@ -0,0 +1,113 @@
+package com.example.cdcdemo.service;
+
+import com.example.cdcdemo.cache.RedisUnitOfWork;
+import com.example.cdcdemo.config.IntegrationProperties;
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.mapper.IntegrationJobMapper;
+import com.example.cdcdemo.mapper.IntegrationJobShardMapper;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.integration.IntegrationJob;
+import com.example.cdcdemo.model.integration.IntegrationStatus;
+import com.example.cdcdemo.publisher.ChangeEventPublisher;
+import com.example.cdcdemo.service.integration.CustomerBatchWriter;
+import com.example.cdcdemo.service.integration.IntegrationLeaseManager;
+import com.example.cdcdemo.service.integration.IntegrationProgressTracker;
+import com.example.cdcdemo.service.integration.IntegrationStatusBroadcaster;
+import com.example.cdcdemo.service.integration.IntegrationStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DataIntegrationServiceTests {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final IntegrationJobMapper jobMapper = mock(IntegrationJobMapper.class);
+    private final CustomerBatchWriter writer = mock(CustomerBatchWriter.class);
+    private final IntegrationProgressTracker progressTracker = mock(IntegrationProgressTracker.class);
+    private final IntegrationLeaseManager leaseManager = mock(IntegrationLeaseManager.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final DataIntegrationService service;
+
+    @SuppressWarnings("unchecked")
+    DataIntegrationServiceTests() {
+        service = new DataIntegrationService(jobMapper, mock(IntegrationJobShardMapper.class),
+                mock(ChangeEventPublisher.class), objectMapper, writer, new IntegrationProperties(), progressTracker,
+                mock(IntegrationStatusBroadcaster.class), leaseManager, transactionTemplate,
+                (RedisTemplate<String, IntegrationStatus>) mock(RedisTemplate.class), mock(RedisUnitOfWork.class));
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(writer.writeChunk(anyList(), any(IntegrationStrategy.class)))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+        when(leaseManager.acquire(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void resumesFromTheCheckpointedSuccessCountNotTheFlushedCounters() {
+        // Checkpointed after 3 records with 2 written; a progress flush then copied live counters of 5 over the row
+        IntegrationJob job = IntegrationJob.builder()
+                .integrationId("job-1").sourceName("mock").sourceType("MOCK").targetEntity("customer")
+                .integrationStrategy("MERGE").status("PROCESSING")
+                .fieldMappings("{\"name\":\"name\"}")
+                .sourceConfig("{\"count\":5,\"partitionWorkers\":1}")
+                .checkpointOffset(3L).checkpointSuccess(2L)
+                .recordsProcessed(5L).recordsSuccess(5L).recordsFailed(0L)
+                .shardCount(1)
+                .build();
+        when(jobMapper.selectOne(any())).thenReturn(job);
+
+        service.processIntegration("job-1");
+
+        verify(progressTracker).increment("job-1", 3L, 2L);
+        verify(leaseManager).checkpoint("job-1", 5L, 4L);
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getRecordsProcessed()).isEqualTo(5L);
+        assertThat(job.getRecordsSuccess()).isEqualTo(4L);
+        assertThat(job.getRecordsFailed()).isEqualTo(1L);
+    }
+
+    @Test
+    void retriesAFailedChunkFromTheRecordsAsRead() {
+        IntegrationJob job = IntegrationJob.builder()
+                .integrationId("job-2").sourceName("mock").sourceType("MOCK").targetEntity("customer")
+                .integrationStrategy("MERGE").status("PENDING")
+                .fieldMappings("{\"name\":\"name\"}")
+                .sourceConfig("{\"count\":3,\"partitionWorkers\":1}")
+                .checkpointOffset(0L).shardCount(1)
+                .build();
+        when(jobMapper.selectOne(any())).thenReturn(job);
+        List<Long> retriedIds = new ArrayList<>();
+        when(writer.writeChunk(anyList(), any(IntegrationStrategy.class))).thenAnswer(invocation -> {
+            List<Customer> chunk = invocation.getArgument(0);
+            if (chunk.size() > 1) {
+                // Like insertBatch: ids are generated, then the transaction rolls back
+                long id = 1000;
+                for (Customer customer : chunk) {
+                    customer.setId(id++);
+                    customer.setVersion(1L);
+                }
+                throw new IllegalStateException("deadlock");
+            }
+            retriedIds.add(chunk.get(0).getId());
+            return 1;
+        });
+
+        service.processIntegration("job-2");
+
+        assertThat(retriedIds).containsExactly(null, null, null);
+        verify(leaseManager).checkpoint("job-2", 3L, 3L);
+        assertThat(job.getRecordsSuccess()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerFieldMappingTests {
+
+    @Test
+    void mapsAndCoercesConfiguredFields() {
+        Map<String, String> mappings = new LinkedHashMap<>();
+        mappings.put("customer_id", "ID");
+        mappings.put("full_name", "name");
+        mappings.put("mail", "Email");
+        mappings.put("fax", "fax");
+        CustomerFieldMapping mapping = CustomerFieldMapping.compile(mappings);
+
+        Map<String, Object> record = new HashMap<>();
+        record.put("customer_id", " 42 ");
+        record.put("full_name", "Jane");
+        record.put("mail", null);
+        record.put("fax", "123");
+
+        Customer customer = mapping.map(record);
+
+        assertThat(customer.getId()).isEqualTo(42L);
+        assertThat(customer.getName()).isEqualTo("Jane");
+        assertThat(customer.getEmail()).isNull();
+        assertThat(customer.getPhone()).isNull();
+
+        record.put("customer_id", 7);
+        assertThat(mapping.map(record).getId()).isEqualTo(7L);
+    }
+
+    @Test
+    void rejectsNonNumericId() {
+        CustomerFieldMapping mapping = CustomerFieldMapping.compile(Collections.singletonMap("id", "id"));
+
+        assertThatThrownBy(() -> mapping.map(Collections.singletonMap("id", "abc")))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void resolvesHeaderColumns() {
+        Map<String, String> mappings = new HashMap<>();
+        mappings.put("a", "address");
+        mappings.put("p", "phone");
+
+        CustomerField[] columns = CustomerFieldMapping.compile(mappings).targetsForColumns(new String[]{"p", "x", "a"});
+
+        assertThat(columns).containsExactly(CustomerField.PHONE, null, CustomerField.ADDRESS);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntegrationPartitionerTests {
+
+    @Test
+    void keepsEveryRecordOfOneIdInOnePartition() {
+        Customer customer = new Customer();
+        customer.setId(42L);
+
+        int partition = IntegrationPartitioner.partition(customer, 0, IntegrationStrategy.MERGE, 8);
+        for (long index = 1; index < 100; index++) {
+            assertThat(IntegrationPartitioner.partition(customer, index, IntegrationStrategy.MERGE, 8)).isEqualTo(partition);
+        }
+    }
+
+    @Test
+    void spreadsIdsAndUnkeyedRecordsOverAllPartitions() {
+        Set<Integer> byId = new HashSet<>();
+        Set<Integer> byPosition = new HashSet<>();
+        for (long i = 0; i < 64; i++) {
+            Customer customer = new Customer();
+            customer.setId(i + 1);
+            byId.add(IntegrationPartitioner.partition(customer, 0, IntegrationStrategy.REPLACE, 4));
+            byPosition.add(IntegrationPartitioner.partition(customer, i, IntegrationStrategy.APPEND, 4));
+        }
+
+        assertThat(byId).containsExactlyInAnyOrder(0, 1, 2, 3);
+        assertThat(byPosition).containsExactlyInAnyOrder(0, 1, 2, 3);
+        assertThat(IntegrationPartitioner.partition(null, 6, IntegrationStrategy.MERGE, 4)).isEqualTo(2);
+    }
+}
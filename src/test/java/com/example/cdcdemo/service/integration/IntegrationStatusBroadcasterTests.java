@@ -0,0 +1,55 @@
+package com.example.cdcdemo.service.integration;
+
+import com.example.cdcdemo.config.IntegrationProperties;
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.model.integration.IntegrationStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class IntegrationStatusBroadcasterTests {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final IntegrationProperties properties = new IntegrationProperties();
+    private final IntegrationStatusBroadcaster broadcaster = new IntegrationStatusBroadcaster(
+            mock(StringRedisTemplate.class), objectMapper, properties, mock(RedisMessageListenerContainer.class));
+
+    @Test
+    void pollIsAnsweredByTheNextStatusChange() throws Exception {
+        DeferredResult<IntegrationStatus> result = broadcaster.poll(status("job-1", "PROCESSING", 0L),
+                Duration.ofSeconds(30), () -> null);
+        assertThat(result.hasResult()).isFalse();
+
+        receive(status("job-2", "PROCESSING", 10L));
+        assertThat(result.hasResult()).isFalse();
+
+        receive(status("job-1", "PROCESSING", 500L));
+        assertThat(result.hasResult()).isTrue();
+        assertThat(((IntegrationStatus) result.getResult()).getRecordsProcessed()).isEqualTo(500L);
+    }
+
+    @Test
+    void finishedJobsAnswerPollsRightAway() {
+        DeferredResult<IntegrationStatus> result = broadcaster.poll(status("job-1", "COMPLETED", 42L),
+                Duration.ofSeconds(30), () -> null);
+
+        assertThat(result.hasResult()).isTrue();
+    }
+
+    private void receive(IntegrationStatus status) throws Exception {
+        byte[] channel = properties.getEvents().getChannel().getBytes();
+        broadcaster.onMessage(new DefaultMessage(channel, objectMapper.writeValueAsBytes(status)), null);
+    }
+
+    private IntegrationStatus status(String id, String state, Long processed) {
+        return IntegrationStatus.builder().integrationId(id).status(state).recordsProcessed(processed).build();
+    }
+}
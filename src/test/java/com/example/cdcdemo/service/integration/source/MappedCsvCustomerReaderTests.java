@@ -0,0 +1,60 @@
+package com.example.cdcdemo.service.integration.source;
+
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.service.integration.CustomerFieldMapping;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedCsvCustomerReaderTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesAllRangesIntoCustomers() throws IOException {
+        Path file = tempDir.resolve("customers.csv");
+        int rows = 50_000;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("customer_id,full_name,mail,ignored\r\n");
+            for (int i = 1; i <= rows; i++) {
+                writer.write(i + ",\"Doe, \"\"J" + i + "\"\"\",user" + i + "@example.com,x\r\n");
+            }
+            writer.write("not-a-number,Broken,broken@example.com,x\n");
+        }
+
+        Map<String, String> mappings = new HashMap<>();
+        mappings.put("customer_id", "id");
+        mappings.put("full_name", "name");
+        mappings.put("mail", "email");
+
+        Map<Long, Customer> parsed = new ConcurrentHashMap<>();
+        MappedCsvCustomerReader reader = new MappedCsvCustomerReader(file, ',', CustomerFieldMapping.compile(mappings));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            reader.read(pool, 1000, (List<Customer> chunk) -> chunk.forEach(c -> parsed.put(c.getId(), c)));
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(reader.getRecords()).isEqualTo(rows);
+        assertThat(reader.getFailed()).isEqualTo(1);
+        assertThat(parsed).hasSize(rows);
+        Customer sample = parsed.get(4242L);
+        assertThat(sample.getName()).isEqualTo("Doe, \"J4242\"");
+        assertThat(sample.getEmail()).isEqualTo("user4242@example.com");
+        assertThat(sample.getPhone()).isNull();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.cdcdemo.service.integration.source;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SourceRecordReaderTests {
+
+    @Test
+    void csvReaderHandlesQuotingAndLineEndings() throws IOException {
+        String csv = "\uFEFFid,name,address\r\n"
+                + "1,\"Smith, John\",\"12 \"\"Main\"\" St\"\r\n"
+                + "\r\n"
+                + "2,Jane,\"line one\nline two\"\n"
+                + "3,,\n";
+
+        List<Map<String, Object>> records = readAll(new CsvRecordReader(new StringReader(csv), ','));
+
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0)).containsEntry("id", "1")
+                .containsEntry("name", "Smith, John")
+                .containsEntry("address", "12 \"Main\" St");
+        assertThat(records.get(1)).containsEntry("address", "line one\nline two");
+        assertThat(records.get(2)).containsEntry("id", "3")
+                .containsEntry("name", null)
+                .containsEntry("address", null);
+    }
+
+    @Test
+    void skipResumesAfterCheckpointedRecords() throws IOException {
+        String csv = "id,name\n1,a\n2,b\n3,c\n";
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv), ',');
+        assertThat(reader.skip(2)).isEqualTo(2);
+        assertThat(readAll(reader)).extracting(r -> r.get("id")).containsExactly("3");
+
+        assertThat(new MockRecordReader(3).skip(5)).isEqualTo(3);
+    }
+
+    @Test
+    void csvReaderRejectsUnterminatedQuote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("id,name\n1,\"open"), ',');
+
+        assertThatThrownBy(reader::hasNext).hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void jsonReaderStreamsArrayElements() throws IOException {
+        String json = "[{\"id\": 1, \"name\": \"A\"}, {\"id\": 2, \"tags\": [\"x\"]}]";
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        List<Map<String, Object>> records =
+                readAll(new JsonArrayRecordReader(objectMapper.getFactory().createParser(json)));
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0)).containsEntry("id", 1).containsEntry("name", "A");
+        assertThat(records.get(1)).containsKey("tags");
+    }
+
+    @Test
+    void jsonReaderRequiresArray() {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertThatThrownBy(() -> new JsonArrayRecordReader(objectMapper.getFactory().createParser("{\"id\": 1}")))
+                .isInstanceOf(IOException.class);
+    }
+
+    private List<Map<String, Object>> readAll(SourceRecordReader reader) throws IOException {
+        List<Map<String, Object>> records = new ArrayList<>();
+        try (SourceRecordReader r = reader) {
+            while (r.hasNext()) {
+                records.add(r.next());
+            }
+        }
+        return records;
+    }
+}
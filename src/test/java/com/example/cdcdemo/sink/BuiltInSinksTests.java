@@ -0,0 +1,140 @@
+package com.example.cdcdemo.sink;
+
+import com.example.cdcdemo.config.JacksonConfig;
+import com.example.cdcdemo.model.Customer;
+import com.example.cdcdemo.model.DataChangeEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BuiltInSinksTests {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @Test
+    void searchIndexFollowsUpdatesAndDeletesAndIgnoresStaleEvents() {
+        SearchIndexSink index = new SearchIndexSink(objectMapper);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 2);
+        row.put("name", "John Smith");
+        row.put("email", "john@example.com");
+
+        index.write(Arrays.asList(
+                event(1L, "CREATE", new Customer(1L, "Jane Smith", "jane@example.com", null, "1 Main St", 1L), 1L),
+                event(2L, "CREATE", row, 1L),
+                event(1L, "UPDATE", new Customer(1L, "Jane Doe", "jane@example.com", null, "1 Main St", 2L), 2L)));
+
+        assertThat(index.search("smith")).containsExactly(2L);
+        assertThat(index.search("Jane DOE")).containsExactly(1L);
+        assertThat(index.search("example.com")).containsExactly(1L, 2L);
+
+        // A replay of the first version changes nothing; after the delete, a stale update doesn't bring it back
+        index.write(Arrays.asList(
+                event(1L, "CREATE", new Customer(1L, "Jane Smith", "jane@example.com", null, "1 Main St", 1L), 1L),
+                event(2L, "DELETE", row, 1L),
+                event(2L, "UPDATE", row, 1L)));
+
+        assertThat(index.search("smith")).isEmpty();
+        assertThat(index.search("doe")).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        // Re-creating the row (e.g. an import replacing it) starts over at version 1
+        index.write(Collections.singletonList(event(2L, "CREATE", row, 1L)));
+
+        assertThat(index.search("smith")).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void fileSinkRollsSegmentsAndResumesAfterRestart(@TempDir Path directory) throws Exception {
+        SegmentedFileSink sink = new SegmentedFileSink(directory, 600, false, objectMapper);
+        for (long id = 1; id <= 6; id++) {
+            sink.write(Collections.singletonList(event(id, "CREATE", new Customer(id, "Customer " + id, null, null, null, 1L), 1L)));
+        }
+        sink.close();
+        List<Path> segments = sink.segments();
+        assertThat(segments).hasSizeGreaterThan(1);
+
+        SegmentedFileSink reopened = new SegmentedFileSink(directory, 600, false, objectMapper);
+        reopened.write(Collections.singletonList(event(7L, "DELETE", new Customer(7L, null, null, null, null, 1L), 1L)));
+        reopened.close();
+
+        assertThat(reopened.segments()).startsWith(segments.toArray(new Path[0]));
+        long lines = 0;
+        for (Path segment : reopened.segments()) {
+            assertThat(Files.size(segment)).isLessThanOrEqualTo(600);
+            for (String line : Files.readAllLines(segment)) {
+                assertThat(objectMapper.readTree(line).get("entityId").asLong()).isEqualTo(++lines);
+            }
+        }
+        assertThat(lines).isEqualTo(7);
+    }
+
+    @Test
+    void webhookPostsBatchesAndFailsOnErrorResponses() throws Exception {
+        List<JsonNode> received = new CopyOnWriteArrayList<>();
+        AtomicInteger status = new AtomicInteger(204);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/events", exchange -> {
+            received.add(objectMapper.readTree(read(exchange.getRequestBody())));
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            WebhookSink sink = new WebhookSink(new RestTemplate(),
+                    "http://localhost:" + server.getAddress().getPort() + "/events");
+            sink.write(Arrays.asList(
+                    event(1L, "CREATE", new Customer(1L, "Jane", null, null, null, 1L), 1L),
+                    event(2L, "CREATE", new Customer(2L, "John", null, null, null, 1L), 1L)));
+
+            assertThat(received).hasSize(1);
+            assertThat(received.get(0)).hasSize(2);
+            assertThat(received.get(0).get(1).get("data").get("name").asText()).isEqualTo("John");
+
+            status.set(503);
+            assertThatThrownBy(() -> sink.write(Collections.singletonList(
+                    event(3L, "CREATE", new Customer(3L, "Joe", null, null, null, 1L), 1L))))
+                    .isInstanceOf(HttpServerErrorException.class);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static DataChangeEvent event(Long id, String operation, Object data, Long version) {
+        DataChangeEvent event = new DataChangeEvent("customer", id, operation, data, LocalDateTime.now());
+        event.setVersion(version);
+        return event;
+    }
+
+    private static String read(InputStream in) throws java.io.IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        for (int n; (n = in.read(buffer)) != -1; ) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.cdcdemo.sink;
+
+import com.example.cdcdemo.config.SinkProperties;
+import com.example.cdcdemo.model.DataChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SinkDispatcherTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SinkProperties config = new SinkProperties();
+    private SinkDispatcher dispatcher;
+
+    SinkDispatcherTests() {
+        config.setLinger(Duration.ofMillis(5));
+        config.setInitialBackoff(Duration.ofMillis(1));
+        config.setShutdownTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void close() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    void aBlockedSinkDoesNotHoldUpTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink("slow", release);
+        RecordingSink fast = new RecordingSink("fast", null);
+        dispatcher = new SinkDispatcher(Arrays.asList(slow, fast), config, meterRegistry);
+
+        dispatcher.dispatch(events(1, 3));
+
+        assertThat(fast.awaitEvents(3)).isTrue();
+        assertThat(slow.written).isEmpty();
+        release.countDown();
+        assertThat(slow.awaitEvents(3)).isTrue();
+        assertThat(meterRegistry.counter("cdc.sink.events.written", "sink", "fast").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("cdc.sink.lag", "sink", "slow").count()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesFailedBatchesWithBackoff() throws Exception {
+        RecordingSink flaky = new RecordingSink("flaky", null);
+        flaky.failures.set(2);
+        dispatcher = new SinkDispatcher(Collections.singletonList(flaky), config, meterRegistry);
+
+        dispatcher.dispatch(events(1, 2));
+
+        assertThat(flaky.awaitEvents(2)).isTrue();
+        assertThat(flaky.attempts.get()).isEqualTo(3);
+        assertThat(meterRegistry.counter("cdc.sink.retries", "sink", "flaky").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("cdc.sink.events.failed", "sink", "flaky").count()).isZero();
+    }
+
+    @Test
+    void dropsEventsForAFullSinkAfterTheOfferTimeout() throws Exception {
+        config.setQueueCapacity(2);
+        config.setBatchSize(1);
+        config.setOfferTimeout(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink stuck = new RecordingSink("stuck", release);
+        dispatcher = new SinkDispatcher(Collections.singletonList(stuck), config, meterRegistry);
+
+        // One event is held by the blocked write, two fill the queue, the rest don't fit
+        dispatcher.dispatch(events(1, 1));
+        assertThat(stuck.awaitAttempt()).isTrue();
+        dispatcher.dispatch(events(2, 4));
+        release.countDown();
+
+        assertThat(stuck.awaitEvents(3)).isTrue();
+        assertThat(meterRegistry.counter("cdc.sink.events.dropped", "sink", "stuck").count()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsRetryingAndWaitingWhenDroppingIsDisabled() throws Exception {
+        config.setMaxAttempts(0);
+        config.setQueueCapacity(1);
+        config.setBatchSize(1);
+        config.setOfferTimeout(Duration.ZERO);
+        RecordingSink flaky = new RecordingSink("flaky", null);
+        flaky.failures.set(8);
+        dispatcher = new SinkDispatcher(Collections.singletonList(flaky), config, meterRegistry);
+
+        dispatcher.dispatch(events(1, 3));
+
+        assertThat(flaky.awaitEvents(3)).isTrue();
+        assertThat(flaky.attempts.get()).isEqualTo(11);
+        assertThat(meterRegistry.counter("cdc.sink.events.failed", "sink", "flaky").count()).isZero();
+        assertThat(meterRegistry.counter("cdc.sink.events.dropped", "sink", "flaky").count()).isZero();
+    }
+
+    private static List<DataChangeEvent> events(long firstId, int count) {
+        List<DataChangeEvent> events = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            events.add(new DataChangeEvent("customer", id, "CREATE", Collections.emptyMap(), LocalDateTime.now()));
+        }
+        return events;
+    }
+
+    private static final class RecordingSink implements ChangeEventSink {
+        private final String name;
+        private final CountDownLatch release;
+        private final List<DataChangeEvent> written = new CopyOnWriteArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final CountDownLatch firstAttempt = new CountDownLatch(1);
+
+        private RecordingSink(String name, CountDownLatch release) {
+            this.name = name;
+            this.release = release;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void write(List<DataChangeEvent> events) throws Exception {
+            attempts.incrementAndGet();
+            firstAttempt.countDown();
+            if (release != null) {
+                release.await();
+            }
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("unavailable");
+            }
+            written.addAll(events);
+        }
+
+        boolean awaitAttempt() throws InterruptedException {
+            return firstAttempt.await(5, TimeUnit.SECONDS);
+        }
+
+        boolean awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (written.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            return written.size() == count;
+        }
+    }
+}